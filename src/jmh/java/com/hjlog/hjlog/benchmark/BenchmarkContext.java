@@ -0,0 +1,60 @@
+package com.hjlog.hjlog.benchmark;
+
+import com.hjlog.hjlog.HjlogApplication;
+import com.hjlog.hjlog.request.PostCreate;
+import com.hjlog.hjlog.service.PostService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 벤치마크마다 독립된 H2 메모리 DB 로 애플리케이션을 띄우고 rows 개의 글을 넣어 둔다.
+ * */
+final class BenchmarkContext {
+
+    private static final int SEED_BATCH = 10_000;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(int rows) {
+        return start(rows, new String[0]);
+    }
+
+    /**
+     * properties 로 저장소 같은 설정을 바꿔서 띄운다.
+     * */
+    static ConfigurableApplicationContext start(int rows, String... properties) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HjlogApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID(),
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+
+        PostService postService = context.getBean(PostService.class);
+        List<PostCreate> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 1; i <= rows; i++) {
+            batch.add(post(i));
+
+            if (batch.size() == SEED_BATCH || i == rows) {
+                postService.writeAll(batch);
+                batch.clear();
+            }
+        }
+
+        return context;
+    }
+
+    static PostCreate post(int i) {
+        return PostCreate.builder()
+                .title("벤치마크 제목 - " + i)
+                .content("벤치마크 내용 - " + i + " " + "본문 ".repeat(200))
+                .build();
+    }
+}
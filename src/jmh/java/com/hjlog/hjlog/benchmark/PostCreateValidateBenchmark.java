@@ -0,0 +1,67 @@
+package com.hjlog.hjlog.benchmark;
+
+import com.hjlog.hjlog.exception.InvalidRequest;
+import com.hjlog.hjlog.moderation.BannedWordMatcher;
+import com.hjlog.hjlog.request.PostCreate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 금지어 검사를 Aho-Corasick 과 금지어마다 contains 를 부르는 방식으로 비교한다.
+ * 본문에 금지어가 없는 경우(끝까지 훑어야 하는 최악의 경우)를 잰다.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostCreateValidateBenchmark {
+
+    @Param({"1", "1000", "5000"})
+    private int terms;
+
+    @Param({"100", "10000"})
+    private int contentLength;
+
+    private PostCreate postCreate;
+    private List<String> dictionary;
+    private BannedWordMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        dictionary = IntStream.range(0, terms)
+                .mapToObj(i -> "금지어" + i)
+                .collect(Collectors.toList());
+        matcher = BannedWordMatcher.of(dictionary);
+
+        postCreate = PostCreate.builder()
+                .title("벤치마크 제목")
+                .content("평범한 글 내용 ".repeat(contentLength / 9 + 1).substring(0, contentLength))
+                .build();
+    }
+
+    @Benchmark
+    public PostCreate ahoCorasick() {
+        postCreate.validate(matcher);
+        return postCreate;
+    }
+
+    @Benchmark
+    public PostCreate naive() {
+        for (String word : dictionary) {
+            if (postCreate.getTitle().contains(word) || postCreate.getContent().contains(word)) {
+                throw new InvalidRequest("title", word);
+            }
+        }
+        return postCreate;
+    }
+}
@@ -0,0 +1,51 @@
+package com.hjlog.hjlog.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hjlog.hjlog.response.PostResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostJsonBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    @Param({"100", "10000"})
+    private int contentLength;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<PostResponse> posts;
+
+    @Setup
+    public void setUp() {
+        String content = "본".repeat(contentLength);
+        posts = IntStream.range(0, size)
+                .mapToObj(i -> PostResponse.builder()
+                        .id((long) i)
+                        .title("제목 - " + i)
+                        .content(content)
+                        .version(0L)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(posts);
+    }
+}
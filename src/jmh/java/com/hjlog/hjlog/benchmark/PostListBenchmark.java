@@ -0,0 +1,75 @@
+package com.hjlog.hjlog.benchmark;
+
+import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.PostSummaryResponse;
+import com.hjlog.hjlog.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PostService.getList 를 페이지 깊이와 크기별로 잰다. 같은 깊이를 cursor 방식으로도 잰다.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostListBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"1", "100", "4000"})
+    private int page;
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private PostSearch offsetSearch;
+    private PostSearch cursorSearch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(rows);
+        postService = context.getBean(PostService.class);
+
+        offsetSearch = PostSearch.builder()
+                .page(page)
+                .size(size)
+                .build();
+
+        List<PostSummaryResponse> firstPage = postService.getList(PostSearch.builder().page(1).size(1).build());
+        long newestId = firstPage.isEmpty() ? 0 : firstPage.get(0).getId();
+        cursorSearch = PostSearch.builder()
+                .size(size)
+                .cursor(PostSearch.encodeCursor(newestId + 1 - offsetSearch.getOffset()))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PostSummaryResponse> offset() {
+        return postService.getList(offsetSearch);
+    }
+
+    @Benchmark
+    public List<PostSummaryResponse> cursor() {
+        return postService.getList(cursorSearch);
+    }
+}
@@ -0,0 +1,91 @@
+package com.hjlog.hjlog.benchmark;
+
+import com.hjlog.hjlog.cache.PostCache;
+import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.request.PostCreate;
+import com.hjlog.hjlog.response.PostResponse;
+import com.hjlog.hjlog.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostServiceBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private PostCache postCache;
+    private long[] ids;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(rows);
+        postService = context.getBean(PostService.class);
+        postCache = context.getBean(PostCache.class);
+
+        List<Long> allIds = context.getBean(PostRepository.class).findAll().stream()
+                .map(post -> post.getId())
+                .collect(Collectors.toList());
+        ids = allIds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PostResponse getCached() {
+        return postService.get(randomId());
+    }
+
+    @Benchmark
+    public PostResponse getUncached() {
+        long id = randomId();
+        postCache.invalidate(id);
+        return postService.get(id);
+    }
+
+    @Benchmark
+    public void write() {
+        postService.write(BenchmarkContext.post(sequence++));
+    }
+
+    // write 와 같이 글 하나당 시간으로 잰다.
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void writeAll() {
+        List<PostCreate> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(BenchmarkContext.post(sequence++));
+        }
+        postService.writeAll(batch);
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
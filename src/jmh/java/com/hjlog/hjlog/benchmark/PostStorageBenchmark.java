@@ -0,0 +1,106 @@
+package com.hjlog.hjlog.benchmark;
+
+import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.domain.PostEditor;
+import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.PostSummaryResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 캐시를 거치지 않고 PostRepository 를 바로 불러서 JPA 와 로그 저장소를 비교한다.
+ * 쓰기는 서비스처럼 트랜잭션 안에서 부른다.
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostStorageBenchmark {
+
+    @Param({"jpa", "log"})
+    private String storage;
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private PostRepository postRepository;
+    private TransactionTemplate transactionTemplate;
+    private PostSearch search;
+    private long[] ids;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (storage.equals("log")) {
+            directory = Files.createTempDirectory("hjlog-bench-log");
+            context = BenchmarkContext.start(rows, "hjlog.storage.log.directory=" + directory);
+        } else {
+            context = BenchmarkContext.start(rows);
+        }
+        postRepository = context.getBean(PostRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        search = PostSearch.builder().page(1).size(20).build();
+
+        ids = postRepository.findAll().stream()
+                .mapToLong(Post::getId)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        if (directory != null) {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    public Post findById() {
+        return postRepository.findById(randomId()).orElseThrow();
+    }
+
+    @Benchmark
+    public List<PostSummaryResponse> getList() {
+        return postRepository.getList(search);
+    }
+
+    @Benchmark
+    public Long update() {
+        long id = randomId();
+        PostEditor editor = new PostEditor("수정한 제목 - " + sequence++, "수정한 내용");
+        return transactionTemplate.execute(status -> postRepository.update(id, null, editor));
+    }
+
+    @Benchmark
+    public Post save() {
+        Post post = Post.builder()
+                .title("벤치마크 제목 - " + sequence++)
+                .content("벤치마크 내용")
+                .build();
+        return transactionTemplate.execute(status -> postRepository.save(post));
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,128 @@
+package com.hjlog.hjlog.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hjlog.hjlog.event.PostChangedEvent;
+import com.hjlog.hjlog.response.PostResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * PostService.get 앞단의 read-through 캐시
+ * Caffeine 의 W-TinyLFU 로 자주 조회되는 글만 남기고, 글 크기(weight)와 TTL 로 메모리를 제한한다.
+ * 같은 id 에 대한 동시 miss 는 하나의 로딩으로 합쳐진다.
+ * */
+@Slf4j
+@Component
+public class PostCache {
+
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private static final long NOT_LOADED = -1;
+
+    private final Cache<Long, PostResponse> cache;
+
+    // 조회수 flush 가 시작하고 끝날 때마다 올린다. 홀수면 flush 중이다.
+    private final AtomicLong viewFlushes = new AtomicLong();
+
+    public PostCache(@Value("${hjlog.cache.post.max-weight:67108864}") long maxWeight,
+                     @Value("${hjlog.cache.post.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher(PostCache::weigh)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public PostResponse get(Long id, Function<Long, PostResponse> loader) {
+        long[] loadedAt = {NOT_LOADED};
+        PostResponse response = cache.get(id, key -> {
+            loadedAt[0] = viewFlushes.get();
+            return loader.apply(key);
+        });
+        forgetIfFlushedWhileLoading(loadedAt[0], List.of(id));
+        return response;
+    }
+
+    /**
+     * 캐시에 없는 id 들만 모아서 loader 를 한 번 부른다. loader 가 돌려주지 않은 id 는 결과에서 빠진다.
+     * */
+    public Map<Long, PostResponse> getAll(Iterable<Long> ids, Function<Iterable<? extends Long>, Map<Long, PostResponse>> loader) {
+        long[] loadedAt = {NOT_LOADED};
+        List<Long> loaded = new ArrayList<>();
+        Map<Long, PostResponse> responses = cache.getAll(ids, keys -> {
+            loadedAt[0] = viewFlushes.get();
+            Map<Long, PostResponse> found = loader.apply(keys);
+            loaded.addAll(found.keySet());
+            return found;
+        });
+        forgetIfFlushedWhileLoading(loadedAt[0], loaded);
+        return responses;
+    }
+
+    /**
+     * 조회수를 DB 에 더하기 전에 부른다.
+     * */
+    public void beginViewFlush() {
+        viewFlushes.incrementAndGet();
+    }
+
+    /**
+     * 조회수를 DB 에 더한 뒤 부른다. 캐시된 글은 다시 읽지 않고 views 만 올린다.
+     * */
+    public void endViewFlush(Map<Long, Long> flushed) {
+        flushed.forEach((id, views) -> cache.asMap().computeIfPresent(id, (key, response) -> response.plusViews(views)));
+        viewFlushes.incrementAndGet();
+    }
+
+    public PostResponse getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    // 커밋이 끝난 뒤에 지워야 다른 스레드가 커밋 전 값을 다시 채워 넣지 않는다.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() != PostChangedEvent.Type.CREATED) {
+            invalidate(event.getPostId());
+        }
+    }
+
+    // 읽는 도중에 flush 가 있었으면 읽은 views 에 증가분이 들어갔는지 알 수 없어서 다음에 다시 읽는다.
+    private void forgetIfFlushedWhileLoading(long loadedAt, List<Long> ids) {
+        if (loadedAt != NOT_LOADED && (loadedAt % 2 != 0 || viewFlushes.get() != loadedAt)) {
+            cache.invalidateAll(ids);
+        }
+    }
+
+    private static int weigh(Long id, PostResponse response) {
+        long chars = length(response.getTitle()) + length(response.getContent());
+        return (int) Math.min(Integer.MAX_VALUE, chars * 2 + ENTRY_OVERHEAD);
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,112 @@
+package com.hjlog.hjlog.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hjlog.hjlog.event.PostChangedEvent;
+import com.hjlog.hjlog.exception.PostNotFound;
+import com.hjlog.hjlog.render.MarkdownRenderer;
+import com.hjlog.hjlog.response.PostResponse;
+import com.hjlog.hjlog.service.PostService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 글 id 별로 렌더링한 HTML 을 version 과 함께 둔다.
+ * 처음 읽을 때 만들고, version 이 다르면 다시 만든다. 수정된 글이 캐시에 있었다면 뒤에서 미리 다시 만든다.
+ * max-content-length 보다 긴 글은 캐시하지 않는다. (요청마다 스트림으로 렌더링)
+ * */
+@Slf4j
+@Component
+public class PostHtmlCache {
+
+    private final PostService postService;
+    private final MarkdownRenderer markdownRenderer;
+    private final int maxContentLength;
+    private final Cache<Long, Html> cache;
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "post-html-cache-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PostHtmlCache(PostService postService,
+                         MarkdownRenderer markdownRenderer,
+                         @Value("${hjlog.cache.post-html.max-weight:33554432}") long maxWeight,
+                         @Value("${hjlog.cache.post-html.max-content-length:65536}") int maxContentLength) {
+        this.postService = postService;
+        this.markdownRenderer = markdownRenderer;
+        this.maxContentLength = maxContentLength;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Long id, Html html) -> html.bytes.length)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 너무 길어서 캐시하지 않는 글이면 null
+     * */
+    public byte[] get(PostResponse post) {
+        if (!isCacheable(post)) {
+            return null;
+        }
+
+        Html html = cache.asMap().compute(post.getId(), (id, cached) ->
+                cached != null && cached.isVersion(post.getVersion()) ? cached : render(post));
+        return html.bytes;
+    }
+
+    public boolean isCacheable(PostResponse post) {
+        return post.getContent() == null || post.getContent().length() <= maxContentLength;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Long id = event.getPostId();
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            cache.invalidate(id);
+        } else if (event.getType() == PostChangedEvent.Type.EDITED && cache.getIfPresent(id) != null) {
+            refresher.execute(() -> refresh(id));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void refresh(Long id) {
+        try {
+            get(postService.peek(id));
+        } catch (PostNotFound e) {
+            cache.invalidate(id);
+        } catch (RuntimeException e) {
+            log.warn("failed to refresh post html {}", id, e);
+            cache.invalidate(id);
+        }
+    }
+
+    private Html render(PostResponse post) {
+        return new Html(post.getVersion(), markdownRenderer.render(post.getContent()));
+    }
+
+    private static class Html {
+        private final Long version;
+        private final byte[] bytes;
+
+        private Html(Long version, byte[] bytes) {
+            this.version = version;
+            this.bytes = bytes;
+        }
+
+        private boolean isVersion(Long version) {
+            return this.version != null && this.version.equals(version);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.hjlog.hjlog.cache;
+
+import com.hjlog.hjlog.event.PostChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 지운 글 id 의 비트맵
+ * id 는 시퀀스에서 인스턴스마다 블록으로 나눠 받으므로, 본 적 없는 id 도 다른 인스턴스가 이미 썼거나 곧 쓸 수 있다.
+ * 확실히 없다고 말할 수 있는 것은 지운 글뿐이고(id 는 다시 쓰지 않는다), 나머지는 모두 있을 수 있다고 답해서 DB 에서 찾는다.
+ * 삭제는 커밋된 뒤에 넣으므로 없다고 잘못 답하지 않는다. 다른 인스턴스에서 지운 글은 DB 에서 찾는다.
+ * 샤딩을 켜면 id 가 Integer.MAX_VALUE 보다 큰 snowflake id 라서 비트맵에 담을 수 없으므로 끈다.
+ * */
+@Slf4j
+@Component
+public class PostIdFilter {
+
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet deleted = new BitSet();
+
+    public PostIdFilter(@Value("${hjlog.sharding.shards[0].url:}") String firstShardUrl) {
+        this.enabled = firstShardUrl.isEmpty();
+        if (!enabled) {
+            log.info("post id filter disabled: sharded post ids don't fit in a bitmap");
+        }
+    }
+
+    /**
+     * false 면 확실히 없는 글이다.
+     * */
+    public boolean mightContain(Long id) {
+        if (id == null || id < 0) {
+            return false;
+        }
+        if (!enabled || id > Integer.MAX_VALUE) {
+            return true;
+        }
+
+        lock.readLock().lock();
+        try {
+            return !deleted.get(id.intValue());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (!enabled || id == null || id < 0 || id > Integer.MAX_VALUE) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            deleted.set(id.intValue());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            remove(event.getPostId());
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.hjlog.hjlog.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hjlog.hjlog.datasource.PrimaryOnly;
+import com.hjlog.hjlog.event.PostChangedEvent;
+import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.ETags;
+import com.hjlog.hjlog.response.PostSummaryResponse;
+import com.hjlog.hjlog.service.PostService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 자주 조회되는 GET /posts 앞쪽 페이지를 직렬화된 JSON 바이트로 들고 있는 캐시
+ * 글이 작성/수정/삭제되면 내용이 바뀌는 페이지만 stale 로 표시하고 백그라운드에서 다시 만든다.
+ * stale-while-revalidate 가 켜져 있으면 재생성이 끝날 때까지 이전 바이트를 그대로 응답한다.
+ * */
+@Slf4j
+@Component
+public class PostListCache {
+
+    private final PostService postService;
+    private final ObjectMapper objectMapper;
+    private final int maxPage;
+    private final Set<Integer> sizes;
+    private final boolean staleWhileRevalidate;
+
+    private final Map<Key, Slot> slots = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "post-list-cache-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PostListCache(PostService postService,
+                         ObjectMapper objectMapper,
+                         @Value("${hjlog.cache.post-list.pages:3}") int maxPage,
+                         @Value("${hjlog.cache.post-list.sizes:20}") Set<Integer> sizes,
+                         @Value("${hjlog.cache.post-list.stale-while-revalidate:false}") boolean staleWhileRevalidate) {
+        this.postService = postService;
+        this.objectMapper = objectMapper;
+        this.maxPage = maxPage;
+        this.sizes = sizes;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+
+        for (int size : sizes) {
+            for (int page = 1; page <= maxPage; page++) {
+                Key key = new Key(page, size);
+                slots.put(key, new Slot(key));
+            }
+        }
+    }
+
+    /**
+     * 캐시 대상 페이지가 아니면 null
+     * */
+    public Page get(PostSearch postSearch) {
+        Slot slot = slotOf(postSearch);
+        if (slot == null) {
+            return null;
+        }
+
+        Page page = slot.page;
+        if (page == null) {
+            return rebuild(slot);
+        }
+
+        if (slot.isStale(page)) {
+            if (staleWhileRevalidate) {
+                refreshAsync(slot);
+                return page;
+            }
+            return rebuild(slot);
+        }
+
+        return page;
+    }
+
+    public void invalidateAll() {
+        invalidate(page -> true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        slots.values().forEach(this::rebuild);
+        log.info("warmed {} post list pages", slots.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        long id = event.getPostId();
+
+        switch (event.getType()) {
+            case CREATED:
+                // 새 글은 항상 맨 앞에 추가되므로 모든 페이지가 한 칸씩 밀린다.
+                invalidate(page -> true);
+                break;
+            case EDITED:
+                invalidate(page -> page.contains(id));
+                break;
+            case DELETED:
+                // 지워진 글이 있던 페이지와 그 뒤 페이지들이 한 칸씩 당겨진다.
+                invalidate(page -> page.minId <= id);
+                break;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private Slot slotOf(PostSearch postSearch) {
+        if (postSearch.isCursorMode() || postSearch.getPage() == null || postSearch.getSize() == null) {
+            return null;
+        }
+
+        int page = Math.max(1, postSearch.getPage());
+        if (page > maxPage || !sizes.contains(postSearch.getSize())) {
+            return null;
+        }
+
+        return slots.get(new Key(page, postSearch.getSize()));
+    }
+
+    private void invalidate(Predicate<Page> affected) {
+        for (Slot slot : slots.values()) {
+            Page page = slot.page;
+            if (page == null || affected.test(page)) {
+                slot.generation.incrementAndGet();
+                refreshAsync(slot);
+            }
+        }
+    }
+
+    private void refreshAsync(Slot slot) {
+        if (!slot.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        refresher.execute(() -> {
+            try {
+                do {
+                    rebuild(slot);
+                } while (slot.isStale(slot.page));
+            } catch (RuntimeException e) {
+                log.warn("failed to refresh post list page {}", slot.key, e);
+            } finally {
+                slot.refreshing.set(false);
+            }
+        });
+    }
+
+    private Page rebuild(Slot slot) {
+        synchronized (slot) {
+            Page current = slot.page;
+            if (current != null && !slot.isStale(current)) {
+                return current;
+            }
+
+            // 조회 전에 세대를 읽어 두어야 조회 도중 들어온 변경이 유실되지 않는다.
+            long generation = slot.generation.get();
+            // 캐시는 변경 이벤트로만 지워지므로 늦을 수 있는 복제본이 아니라 primary 에서 채운다.
+            List<PostSummaryResponse> posts;
+            try (PrimaryOnly ignored = PrimaryOnly.begin()) {
+                posts = postService.getList(PostSearch.builder()
+                        .page(slot.key.page)
+                        .size(slot.key.size)
+                        .build());
+            }
+
+            Page page = new Page(serialize(posts), posts, generation);
+            slot.page = page;
+            return page;
+        }
+    }
+
+    private byte[] serialize(List<PostSummaryResponse> posts) {
+        try {
+            return objectMapper.writeValueAsBytes(posts);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Key {
+
+        private final int page;
+        private final int size;
+
+        private Key(int page, int size) {
+            this.page = page;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return page == key.page && size == key.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * page + size;
+        }
+
+        @Override
+        public String toString() {
+            return "page=" + page + ", size=" + size;
+        }
+    }
+
+    private static class Slot {
+
+        private final Key key;
+        private final AtomicLong generation = new AtomicLong();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile Page page;
+
+        private Slot(Key key) {
+            this.key = key;
+        }
+
+        private boolean isStale(Page page) {
+            return page.generation != generation.get();
+        }
+    }
+
+    public static class Page {
+
+        private final byte[] body;
+        private final String eTag;
+        private final long minId;
+        private final long maxId;
+        private final long generation;
+
+        private Page(byte[] body, List<PostSummaryResponse> posts, long generation) {
+            this.body = body;
+            this.eTag = ETags.ofList(posts, PostSummaryResponse::getId, PostSummaryResponse::getVersion);
+            // 빈 페이지는 수정/삭제로는 바뀌지 않는다.
+            this.minId = posts.isEmpty() ? Long.MAX_VALUE : posts.get(posts.size() - 1).getId();
+            this.maxId = posts.isEmpty() ? Long.MIN_VALUE : posts.get(0).getId();
+            this.generation = generation;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        private boolean contains(long id) {
+            return minId <= id && id <= maxId;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.hjlog.hjlog.config;
+
+import com.hjlog.hjlog.sql.SqlStatementListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class DataSourceProxyConfig {
+
+    /**
+     * 모든 DataSource 를 감싸서 실행된 SQL 을 SqlStats 로 센다.
+     * */
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(Environment environment) {
+        Duration slowThreshold = environment.getProperty("hjlog.sql.slow-threshold", Duration.class, Duration.ofMillis(100));
+        SqlStatementListener listener = new SqlStatementListener(slowThreshold.toMillis());
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource)) {
+                    return bean;
+                }
+
+                return ProxyDataSourceBuilder.create((DataSource) bean)
+                        .name(beanName)
+                        .listener(listener)
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.hjlog.hjlog.config;
+
+import com.hjlog.hjlog.repository.log.LogPostRepository;
+import com.hjlog.hjlog.repository.log.PostLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * hjlog.storage.log.directory 가 있을 때만 켜진다. 글은 JPA 대신 그 디렉터리의 로그에 저장한다.
+ * */
+@Configuration
+@ConditionalOnProperty("hjlog.storage.log.directory")
+public class LogStorageConfig {
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public LogPostRepository logPostRepository(@Value("${hjlog.storage.log.directory}") Path directory,
+                                               @Value("${hjlog.storage.log.segment-size:64MB}") DataSize segmentSize,
+                                               @Value("${hjlog.storage.log.fsync:false}") boolean fsync,
+                                               @Value("${hjlog.storage.log.compaction-interval:1m}") Duration compactionInterval,
+                                               @Value("${hjlog.storage.log.compaction-threshold:0.5}") double compactionThreshold) {
+        PostLog postLog = new PostLog(directory, (int) segmentSize.toBytes(), fsync);
+        return new LogPostRepository(postLog, compactionInterval, compactionThreshold);
+    }
+}
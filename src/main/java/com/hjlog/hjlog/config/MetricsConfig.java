@@ -0,0 +1,38 @@
+package com.hjlog.hjlog.config;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * http.server.requests 에 컨트롤러 메서드 이름을 붙인다.
+     * GET /posts 처럼 uri 가 같아도 params 로 갈리는 메서드를 따로 볼 수 있다.
+     * */
+    @Bean
+    public WebMvcTagsContributor handlerTagsContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Throwable exception) {
+                String name = handler instanceof HandlerMethod
+                        ? ((HandlerMethod) handler).getBeanType().getSimpleName() + "." + ((HandlerMethod) handler).getMethod().getName()
+                        : "none";
+                return Tags.of("handler", name);
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.empty();
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.hjlog.hjlog.config;
+
+import com.hjlog.hjlog.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * hjlog.datasource.replicas 가 있을 때만 켜진다. 없으면 spring.datasource 하나만 쓴다.
+ * primary 와 복제본 풀은 빈으로 등록하지 않는다. DataSourceProxyConfig 가 바깥의 dataSource 만 감싸야 SQL 을 한 번씩 센다.
+ * */
+@Configuration
+@ConditionalOnProperty("hjlog.datasource.replicas[0].url")
+public class ReplicaDataSourceConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private ReplicaRoutingDataSource routing;
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 @Value("${hjlog.datasource.health-check-interval:5s}") Duration checkInterval,
+                                 @Value("${hjlog.datasource.health-check-timeout:1s}") Duration checkTimeout) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        pools.add(primary);
+
+        List<DataSourceProperties> replicaProperties = Binder.get(environment)
+                .bind("hjlog.datasource.replicas", Bindable.listOf(DataSourceProperties.class))
+                .orElse(List.of());
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            HikariDataSource replica = replicaProperties.get(i).initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(Math.max(250, checkTimeout.toMillis()));
+            // 복제본이 죽어 있어도 애플리케이션은 뜨고, 검사를 통과할 때까지 primary 에서 읽는다.
+            replica.setInitializationFailTimeout(-1);
+            pools.add(replica);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        routing = new ReplicaRoutingDataSource(primary, replicas, checkInterval, checkTimeout);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (routing != null) {
+            routing.close();
+        }
+        pools.forEach(HikariDataSource::close);
+    }
+}
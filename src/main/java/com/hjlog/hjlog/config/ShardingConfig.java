@@ -0,0 +1,69 @@
+package com.hjlog.hjlog.config;
+
+import com.hjlog.hjlog.repository.shard.PostIdGenerator;
+import com.hjlog.hjlog.repository.shard.ShardRebalancer;
+import com.hjlog.hjlog.repository.shard.ShardRouter;
+import com.hjlog.hjlog.repository.shard.ShardedPostRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * hjlog.sharding.shards 가 있을 때만 켜진다. 글은 JPA 대신 샤드들에 JDBC 로 저장한다.
+ * 샤드 풀은 빈으로 등록하지 않는다. spring.datasource 는 그대로 두고 글 저장에는 쓰지 않는다.
+ * */
+@Configuration
+@ConditionalOnProperty("hjlog.sharding.shards[0].url")
+public class ShardingConfig {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public ShardedPostRepository shardedPostRepository(Environment environment,
+                                                       @Value("${hjlog.sharding.count:0}") int count,
+                                                       @Value("${hjlog.sharding.previous-count:0}") int previousCount,
+                                                       @Value("${hjlog.sharding.worker-id:0}") int workerId,
+                                                       @Value("${hjlog.export.fetch-size:500}") int fetchSize) {
+        List<DataSourceProperties> shardProperties = Binder.get(environment)
+                .bind("hjlog.sharding.shards", Bindable.listOf(DataSourceProperties.class))
+                .orElse(List.of());
+
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < shardProperties.size(); i++) {
+            HikariDataSource shard = shardProperties.get(i).initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            shard.setPoolName("shard-" + i);
+            pools.add(shard);
+            shards.add(shard);
+        }
+
+        ShardRouter router = new ShardRouter(count > 0 ? count : shards.size(), previousCount);
+        ShardedPostRepository repository = new ShardedPostRepository(shards, router, new PostIdGenerator(workerId), fetchSize);
+        repository.createSchema();
+        return repository;
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardedPostRepository shardedPostRepository) {
+        return new ShardRebalancer(shardedPostRepository);
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
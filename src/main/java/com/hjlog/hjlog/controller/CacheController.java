@@ -0,0 +1,19 @@
+package com.hjlog.hjlog.controller;
+
+import com.hjlog.hjlog.cache.PostCache;
+import com.hjlog.hjlog.response.CacheStatsResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final PostCache postCache;
+
+    @GetMapping("/caches/posts")
+    public CacheStatsResponse postCacheStats() {
+        return new CacheStatsResponse(postCache.estimatedSize(), postCache.stats());
+    }
+}
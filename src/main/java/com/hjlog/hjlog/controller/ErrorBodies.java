@@ -0,0 +1,40 @@
+package com.hjlog.hjlog.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hjlog.hjlog.exception.PostNotFound;
+import com.hjlog.hjlog.response.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * 자주 나가는 에러 응답을 미리 직렬화해 둔다.
+ * 컨트롤러가 예외 없이 바로 돌려주는 경우도 있어서 hjlog.exceptions 도 여기서 센다.
+ * */
+@Component
+public class ErrorBodies {
+
+    private final byte[] postNotFound;
+    private final Counter postNotFoundCount;
+
+    public ErrorBodies(ObjectMapper objectMapper, MeterRegistry meterRegistry) throws JsonProcessingException {
+        PostNotFound e = new PostNotFound();
+        this.postNotFound = objectMapper.writeValueAsBytes(ErrorResponse.builder()
+                .code(String.valueOf(e.getStatusCode()))
+                .message(e.getMessage())
+                .build());
+        this.postNotFoundCount = meterRegistry.counter("hjlog.exceptions",
+                "exception", e.getClass().getSimpleName(),
+                "status", String.valueOf(e.getStatusCode()));
+    }
+
+    public ResponseEntity<byte[]> postNotFound() {
+        postNotFoundCount.increment();
+        return ResponseEntity.status(404)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(postNotFound);
+    }
+}
@@ -2,8 +2,12 @@ package com.hjlog.hjlog.controller;
 
 import com.hjlog.hjlog.exception.HjlogException;
 import com.hjlog.hjlog.exception.InvalidRequest;
+import com.hjlog.hjlog.exception.PostNotFound;
 import com.hjlog.hjlog.response.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -17,8 +21,12 @@ import static com.hjlog.hjlog.response.ErrorResponse.*;
 
 @Slf4j
 @ControllerAdvice
+@RequiredArgsConstructor
 public class ExceptionController {
 
+    private final MeterRegistry meterRegistry;
+    private final ErrorBodies errorBodies;
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseBody
@@ -36,11 +44,30 @@ public class ExceptionController {
         return response;
     }
 
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseBody
+    public ErrorResponse optimisticLockHandler(OptimisticLockingFailureException e) {
+
+        return builder()
+                .code("409")
+                .message("다른 요청이 먼저 글을 수정했습니다. 다시 조회 후 수정해주세요.")
+                .build();
+    }
+
+    @ExceptionHandler(PostNotFound.class)
+    public ResponseEntity<byte[]> postNotFound(PostNotFound e) {
+        // hjlog.exceptions 는 ErrorBodies 가 센다.
+        return errorBodies.postNotFound();
+    }
+
     @ExceptionHandler(HjlogException.class)
     @ResponseBody
     public ResponseEntity<ErrorResponse> hjlogException(HjlogException e) {
 
         int statusCode = e.getStatusCode();
+        countException(e);
+
         ErrorResponse responseBody = builder()
                 .code(String.valueOf(statusCode))
                 .message(e.getMessage())
@@ -50,4 +77,11 @@ public class ExceptionController {
         return ResponseEntity.status(statusCode)
                 .body(responseBody);
     }
+
+    private void countException(HjlogException e) {
+        meterRegistry.counter("hjlog.exceptions",
+                        "exception", e.getClass().getSimpleName(),
+                        "status", String.valueOf(e.getStatusCode()))
+                .increment();
+    }
 }
@@ -0,0 +1,32 @@
+package com.hjlog.hjlog.controller;
+
+import com.hjlog.hjlog.feed.PostAtomFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequiredArgsConstructor
+public class FeedController {
+
+    private static final MediaType ATOM = MediaType.parseMediaType("application/atom+xml;charset=UTF-8");
+
+    private final PostAtomFeed postAtomFeed;
+
+    @GetMapping("/feed.xml")
+    public ResponseEntity<byte[]> atom(WebRequest request) {
+        PostAtomFeed.Feed feed = postAtomFeed.get();
+        if (request.checkNotModified(feed.getETag(), feed.getLastModified())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .contentType(ATOM)
+                .eTag(feed.getETag())
+                .lastModified(feed.getLastModified())
+                .body(feed.getBody());
+    }
+}
@@ -1,49 +1,255 @@
 package com.hjlog.hjlog.controller;
 
+import com.hjlog.hjlog.cache.PostHtmlCache;
+import com.hjlog.hjlog.cache.PostIdFilter;
+import com.hjlog.hjlog.cache.PostListCache;
+import com.hjlog.hjlog.counter.PopularPosts;
 import com.hjlog.hjlog.exception.InvalidRequest;
+import com.hjlog.hjlog.feed.PostChangeFeed;
+import com.hjlog.hjlog.exception.PreconditionFailed;
+import com.hjlog.hjlog.moderation.BannedWords;
+import com.hjlog.hjlog.render.MarkdownRenderer;
+import com.hjlog.hjlog.repository.PostVersion;
 import com.hjlog.hjlog.request.PostCreate;
 import com.hjlog.hjlog.request.PostEdit;
 import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.ETags;
+import com.hjlog.hjlog.response.PostBatchResponse;
+import com.hjlog.hjlog.response.PostCursorResponse;
+import com.hjlog.hjlog.response.PostImportResponse;
+import com.hjlog.hjlog.response.PostLookupResponse;
+import com.hjlog.hjlog.response.PostPopularResponse;
 import com.hjlog.hjlog.response.PostResponse;
+import com.hjlog.hjlog.response.PostSearchResponse;
+import com.hjlog.hjlog.response.PostSummaryResponse;
+import com.hjlog.hjlog.response.PostWriteResponse;
+import com.hjlog.hjlog.search.PostSearchIndex;
+import com.hjlog.hjlog.service.PostImportService;
 import com.hjlog.hjlog.service.PostService;
+import com.hjlog.hjlog.service.PostWriteBehindService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class PostController {
 
+    private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
     private final PostService postService;
+    private final PostImportService postImportService;
+    private final PostWriteBehindService postWriteBehindService;
+    private final PostListCache postListCache;
+    private final PostSearchIndex postSearchIndex;
+    private final PostIdFilter postIdFilter;
+    private final ErrorBodies errorBodies;
+    private final BannedWords bannedWords;
+    private final PostChangeFeed postChangeFeed;
+    private final PostHtmlCache postHtmlCache;
+    private final MarkdownRenderer markdownRenderer;
+    private final PopularPosts popularPosts;
 
     @PostMapping("/posts")
-    public void post(@RequestBody @Valid PostCreate request) throws Exception {
-        request.validate();
-        
+    public ResponseEntity<PostWriteResponse> post(@RequestBody @Valid PostCreate request) throws Exception {
+        request.validate(bannedWords.current());
+
+        if (postWriteBehindService.isEnabled()) {
+            PostWriteResponse response = postWriteBehindService.enqueue(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/posts/writes/" + response.getTrackingId()))
+                    .body(response);
+        }
+
         postService.write(request);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/posts/writes/{trackingId}")
+    public PostWriteResponse getWriteStatus(@PathVariable String trackingId) {
+        return postWriteBehindService.getStatus(trackingId);
+    }
+
+    @PostMapping("/posts/batch")
+    public PostBatchResponse postBatch(@RequestBody List<PostCreate> request) {
+        return postService.writeAll(request);
+    }
+
+    @PostMapping("/posts/import")
+    public ResponseEntity<PostImportResponse> importPosts(InputStream body,
+                                                          @RequestParam(defaultValue = "1") long fromLine) {
+        PostImportResponse response = postImportService.importPosts(body, fromLine);
+
+        return ResponseEntity.status(response.isCompleted() ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(response);
     }
 
     @GetMapping("/posts/{postId}")
-    public PostResponse get(@PathVariable Long postId) {
-        return postService.get(postId);
+    public ResponseEntity<?> get(@PathVariable Long postId,
+                                 @RequestHeader(value = IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // 확실히 없는 id 는 DB 와 예외 처리를 거치지 않고 바로 404
+        if (!postIdFilter.mightContain(postId)) {
+            return errorBodies.postNotFound();
+        }
+
+        if (ifNoneMatch != null) {
+            String current = ETags.weak(postId, postService.getVersion(postId));
+            if (ETags.matches(ifNoneMatch, current)) {
+                return notModified(current);
+            }
+        }
+
+        PostResponse response = postService.get(postId);
+        return ResponseEntity.ok()
+                .eTag(ETags.weak(response.getId(), response.getVersion()))
+                .body(response);
+    }
+
+    @GetMapping("/posts/{postId}/html")
+    public ResponseEntity<byte[]> getHtml(@PathVariable Long postId, HttpServletResponse response) throws IOException {
+        if (!postIdFilter.mightContain(postId)) {
+            return errorBodies.postNotFound();
+        }
+
+        PostResponse post = postService.get(postId);
+        byte[] cached = postHtmlCache.get(post);
+        if (cached != null) {
+            return ResponseEntity.ok()
+                    .contentType(TEXT_HTML_UTF8)
+                    .body(cached);
+        }
+
+        // 긴 글은 렌더링하면서 바로 응답에 쓴다.
+        response.setContentType(TEXT_HTML_UTF8.toString());
+        markdownRenderer.render(post.getContent(), response.getOutputStream());
+        return null;
     }
 
+    // id 역순이다. 인스턴스가 여럿이면 id 를 블록으로 나눠 받으므로 작성 순서와 같지 않을 수 있다.
     @GetMapping("/posts")
-    public List<PostResponse> getList(@ModelAttribute PostSearch postSearch) {
-        return postService.getList(postSearch);
+    public ResponseEntity<?> getList(@ModelAttribute PostSearch postSearch,
+                                     @RequestHeader(value = IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PostListCache.Page cached = postListCache.get(postSearch);
+        if (cached != null) {
+            if (ETags.matches(ifNoneMatch, cached.getETag())) {
+                return notModified(cached.getETag());
+            }
+
+            return ResponseEntity.ok()
+                    .eTag(cached.getETag())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(cached.getBody());
+        }
+
+        if (ifNoneMatch != null) {
+            String current = ETags.ofList(postService.getListVersions(postSearch), PostVersion::getId, PostVersion::getVersion);
+            if (ETags.matches(ifNoneMatch, current)) {
+                return notModified(current);
+            }
+        }
+
+        List<PostSummaryResponse> posts = postService.getList(postSearch);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofList(posts, PostSummaryResponse::getId, PostSummaryResponse::getVersion))
+                .body(posts);
+    }
+
+    @GetMapping(value = "/posts", params = "ids")
+    public PostLookupResponse getAll(@RequestParam List<Long> ids) {
+        return postService.getAll(ids);
+    }
+
+    @GetMapping(value = "/posts", params = "cursor")
+    public PostCursorResponse getCursorList(@ModelAttribute PostSearch postSearch) {
+        return postService.getCursorList(postSearch);
+    }
+
+    @GetMapping("/posts/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) Long sinceId) {
+        StreamingResponseBody body = out -> postService.export(sinceId, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    @GetMapping(value = "/posts/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return postChangeFeed.subscribe(lastEventId);
+    }
+
+    @GetMapping("/posts/popular")
+    public PostPopularResponse popular(@RequestParam(defaultValue = "1h") String window,
+                                       @RequestParam(defaultValue = "10") int size) {
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(window);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequest("window", "기간은 1h, 30m 같은 형식으로 입력해주세요.");
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new InvalidRequest("window", "기간은 0보다 커야 합니다.");
+        }
+
+        return popularPosts.top(duration, Math.max(1, Math.min(size, 100)));
+    }
+
+    @GetMapping("/posts/search")
+    public PostSearchResponse search(@RequestParam(defaultValue = "") String q, @ModelAttribute PostSearch postSearch) {
+        if (q.isBlank()) {
+            throw new InvalidRequest("q", "검색어를 입력해주세요.");
+        }
+
+        return postSearchIndex.search(q, postSearch.getOffset(), postSearch.getLimit());
     }
 
     @PatchMapping("/posts/{postId}")
-    public void edit(@PathVariable Long postId, @RequestBody @Valid PostEdit request) {
-        postService.edit(postId, request);
+    public void edit(@PathVariable Long postId, @RequestBody @Valid PostEdit request,
+                     @RequestHeader(value = IF_MATCH, required = false) String ifMatch) {
+        request.validate(bannedWords.current());
+
+        postService.edit(postId, request, expectedVersion(postId, ifMatch));
     }
 
     @DeleteMapping("posts/{postId}")
     public void delete(@PathVariable Long postId) {
         postService.delete(postId);
     }
+
+    private <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .build();
+    }
+
+    private Long expectedVersion(Long postId, String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        Long version = ETags.parseVersion(ifMatch, postId);
+        if (version == null) {
+            throw new PreconditionFailed();
+        }
+        return version;
+    }
 }
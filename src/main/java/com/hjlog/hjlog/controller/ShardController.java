@@ -0,0 +1,24 @@
+package com.hjlog.hjlog.controller;
+
+import com.hjlog.hjlog.repository.shard.ShardRebalancer;
+import com.hjlog.hjlog.response.ShardRebalanceResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty("hjlog.sharding.shards[0].url")
+public class ShardController {
+
+    private final ShardRebalancer shardRebalancer;
+
+    /**
+     * hjlog.sharding.count 를 바꿔서 다시 띄운 뒤 부른다.
+     * */
+    @PostMapping("/shards/rebalance")
+    public ShardRebalanceResponse rebalance() {
+        return shardRebalancer.rebalance();
+    }
+}
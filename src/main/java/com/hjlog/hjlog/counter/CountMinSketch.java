@@ -0,0 +1,61 @@
+package com.hjlog.hjlog.counter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * count-min sketch
+ * depth 개의 행에 width 칸씩, 키마다 행별로 한 칸을 올린다. 추정치는 그 칸들의 최솟값이다.
+ * 키가 몇 종류든 메모리는 depth * width 로 고정이고, 실제 값보다 작게 추정하는 일은 없다.
+ * 오차는 확률 1 - e^-depth 로 (e / width) * 전체 합 이하이다.
+ * */
+public class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray counts;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("depth must be between 1 and " + SEEDS.length);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counts = new AtomicLongArray(depth * width);
+    }
+
+    /**
+     * 하나 올리고 올린 뒤의 추정치를 돌려준다.
+     * */
+    public long add(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts.incrementAndGet(index(row, key)));
+        }
+        return estimate;
+    }
+
+    public long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts.get(index(row, key)));
+        }
+        return estimate;
+    }
+
+    public long memoryBytes() {
+        return (long) depth * width * Long.BYTES;
+    }
+
+    private int index(int row, long key) {
+        long h = (key + SEEDS[row]) * 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 31;
+        h *= 0x94D049BB133111EBL;
+        h ^= h >>> 29;
+        return row * width + (int) ((h >>> 1) % width);
+    }
+}
@@ -0,0 +1,179 @@
+package com.hjlog.hjlog.counter;
+
+import com.hjlog.hjlog.event.PostChangedEvent;
+import com.hjlog.hjlog.response.PostPopularResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 최근 window 동안 많이 조회된 글
+ * bucket-size 단위의 버킷을 링으로 돌려 쓰고, 버킷마다 count-min sketch 와 상위 candidates 개의 후보를 둔다.
+ * 조회할 때는 window 에 걸치는 버킷들의 후보를 모아 sketch 추정치를 더해서 순위를 매긴다.
+ * 글이 몇 개든 메모리는 buckets * (sketch + 후보) 로 고정이다.
+ * 조회 경로는 락을 잡지 않는다. 버킷은 CAS 로 갈아 끼우고, 후보는 넘칠 때만 tryLock 으로 한 스레드가 줄인다.
+ * */
+@Component
+public class PopularPosts {
+
+    private final long bucketMillis;
+    private final int depth;
+    private final int width;
+    private final int candidates;
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final LongSupplier clock;
+
+    @Autowired
+    public PopularPosts(@Value("${hjlog.popular.bucket-size:1m}") Duration bucketSize,
+                        @Value("${hjlog.popular.buckets:60}") int buckets,
+                        @Value("${hjlog.popular.sketch-depth:4}") int depth,
+                        @Value("${hjlog.popular.sketch-width:2048}") int width,
+                        @Value("${hjlog.popular.candidates:100}") int candidates) {
+        this(bucketSize, buckets, depth, width, candidates, System::currentTimeMillis);
+    }
+
+    PopularPosts(Duration bucketSize, int buckets, int depth, int width, int candidates, LongSupplier clock) {
+        this.bucketMillis = bucketSize.toMillis();
+        this.depth = depth;
+        this.width = width;
+        this.candidates = candidates;
+        this.buckets = new AtomicReferenceArray<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            this.buckets.set(i, new Bucket(Long.MIN_VALUE, depth, width, candidates));
+        }
+        this.clock = clock;
+    }
+
+    public void record(Long postId) {
+        long epoch = clock.getAsLong() / bucketMillis;
+        int slot = slot(epoch);
+
+        Bucket bucket = buckets.get(slot);
+        while (bucket.epoch != epoch) {
+            if (bucket.epoch > epoch) {
+                return; // 시계를 읽은 사이에 다음 버킷으로 넘어갔다. 지난 버킷의 조회 하나는 버린다.
+            }
+            // 한 바퀴 돌아온 버킷은 새 버킷으로 바꾼다. 먼저 바꾼 스레드의 버킷을 쓴다.
+            Bucket fresh = new Bucket(epoch, depth, width, candidates);
+            bucket = buckets.compareAndSet(slot, bucket, fresh) ? fresh : buckets.get(slot);
+        }
+        bucket.add(postId);
+    }
+
+    /**
+     * window 는 bucket-size 단위로 올림하고, 버킷 전체 길이를 넘으면 그 길이로 자른다.
+     * */
+    public PostPopularResponse top(Duration window, int limit) {
+        long now = clock.getAsLong() / bucketMillis;
+        int span = (int) Math.min(buckets.length(), Math.max(1, (window.toMillis() + bucketMillis - 1) / bucketMillis));
+
+        List<Bucket> inWindow = new ArrayList<>(span);
+        Set<Long> ids = new HashSet<>();
+        for (long epoch = now - span + 1; epoch <= now; epoch++) {
+            Bucket bucket = buckets.get(slot(epoch));
+            if (bucket.epoch == epoch) {
+                ids.addAll(bucket.candidates);
+                inWindow.add(bucket);
+            }
+        }
+
+        List<PostPopularResponse.Item> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            long views = 0;
+            for (Bucket bucket : inWindow) {
+                views += bucket.sketch.estimate(id);
+            }
+            items.add(new PostPopularResponse.Item(id, views));
+        }
+        items.sort((a, b) -> a.getViews() != b.getViews()
+                ? Long.compare(b.getViews(), a.getViews())
+                : Long.compare(b.getId(), a.getId()));
+
+        return new PostPopularResponse(Duration.ofMillis(span * bucketMillis).toString(),
+                items.subList(0, Math.min(limit, items.size())));
+    }
+
+    /**
+     * 지운 글은 후보에서 빼서 window 가 지나기 전에도 순위에 나오지 않게 한다.
+     * */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.get(i).candidates.remove(event.getPostId());
+            }
+        }
+    }
+
+    public long memoryBytes() {
+        return buckets.length() * buckets.get(0).sketch.memoryBytes();
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) buckets.length());
+    }
+
+    private static class Bucket {
+
+        private final long epoch;
+        private final CountMinSketch sketch;
+        private final int capacity;
+
+        // capacity 의 두 배까지 두었다가 한 번에 capacity 개로 줄인다.
+        private final Set<Long> candidates;
+        private final ReentrantLock trimming = new ReentrantLock();
+        // 마지막으로 줄였을 때 남은 후보 중 가장 작은 추정치. 이보다 작으면 후보가 될 수 없다.
+        private volatile long minViews;
+
+        private Bucket(long epoch, int depth, int width, int capacity) {
+            this.epoch = epoch;
+            this.sketch = new CountMinSketch(depth, width);
+            this.capacity = capacity;
+            this.candidates = ConcurrentHashMap.newKeySet(capacity * 4);
+        }
+
+        private void add(Long id) {
+            long estimate = sketch.add(id);
+            if (estimate <= minViews || candidates.contains(id)) {
+                return;
+            }
+
+            candidates.add(id);
+            if (candidates.size() > capacity * 2 && trimming.tryLock()) {
+                try {
+                    trim();
+                } finally {
+                    trimming.unlock();
+                }
+            }
+        }
+
+        /**
+         * 지금 sketch 추정치로 상위 capacity 개만 남긴다. capacity 개가 새로 들어올 때마다 한 번 정렬한다.
+         * */
+        private void trim() {
+            List<long[]> ranked = new ArrayList<>(candidates.size());
+            candidates.forEach(id -> ranked.add(new long[]{id, sketch.estimate(id)}));
+            if (ranked.size() <= capacity) {
+                return;
+            }
+            ranked.sort((a, b) -> Long.compare(b[1], a[1]));
+
+            for (int i = capacity; i < ranked.size(); i++) {
+                candidates.remove(ranked.get(i)[0]);
+            }
+            minViews = ranked.get(capacity - 1)[1];
+        }
+    }
+}
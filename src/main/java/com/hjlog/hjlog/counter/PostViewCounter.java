@@ -0,0 +1,208 @@
+package com.hjlog.hjlog.counter;
+
+import com.hjlog.hjlog.cache.PostCache;
+import com.hjlog.hjlog.event.PostChangedEvent;
+import com.hjlog.hjlog.repository.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 글 조회수
+ * 조회마다 UPDATE 하지 않고 글 id 별 LongAdder 에 더해 두었다가, flush-interval 마다 증가분만 한 번에 UPDATE 한다.
+ * LongAdder 는 줄이지 않고 반영한 만큼(flushed)을 따로 기억해서, flush 도중에 들어온 조회도 다음 flush 에 들어간다.
+ * 다 반영한 카운터는 flush 뒤에 지워서 한 번 조회된 글마다 카운터가 남지 않게 한다.
+ * 웹 서버가 요청을 다 처리하고 멈춘 뒤에 마지막으로 flush 한다.
+ * */
+@Slf4j
+@Component
+public class PostViewCounter implements SmartLifecycle {
+
+    private final PostRepository postRepository;
+    private final PostCache postCache;
+    private final TransactionTemplate transactionTemplate;
+    private final long flushIntervalMillis;
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "post-view-counter-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ScheduledFuture<?> schedule;
+
+    public PostViewCounter(PostRepository postRepository,
+                           PostCache postCache,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${hjlog.views.flush-interval:1s}") Duration flushInterval) {
+        this.postRepository = postRepository;
+        this.postCache = postCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushIntervalMillis = flushInterval.toMillis();
+    }
+
+    /**
+     * 조회수를 하나 올리고, 아직 DB 에 반영되지 않은 조회수를 돌려준다.
+     * */
+    public long increment(Long id) {
+        while (true) {
+            Counter counter = counters.computeIfAbsent(id, key -> new Counter());
+            if (counter.tryIncrement()) {
+                return counter.pending();
+            }
+        }
+    }
+
+    public long pending(Long id) {
+        Counter counter = counters.get(id);
+        return counter != null ? counter.pending() : 0;
+    }
+
+    /**
+     * 쌓인 증가분을 DB 에 더한다. 실패하면 flushed 를 올리지 않아서 다음 flush 에 다시 들어간다.
+     * */
+    public synchronized int flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+        counters.forEach((id, counter) -> {
+            long delta = counter.pending();
+            if (delta > 0) {
+                deltas.put(id, delta);
+            }
+        });
+        if (deltas.isEmpty()) {
+            retireIdle();
+            return 0;
+        }
+
+        Map<Long, Long> flushed = Map.of();
+        postCache.beginViewFlush();
+        try {
+            transactionTemplate.executeWithoutResult(status -> postRepository.addViews(deltas));
+            flushed = deltas;
+        } catch (RuntimeException e) {
+            log.warn("failed to flush views of {} posts", deltas.size(), e);
+            return 0;
+        } finally {
+            flushed.forEach((id, delta) -> {
+                Counter counter = counters.get(id);
+                if (counter != null) {
+                    counter.flushed += delta;
+                }
+            });
+            // 캐시된 PostResponse 의 views 를 DB 에 맞춘다.
+            postCache.endViewFlush(flushed);
+        }
+
+        retireIdle();
+        return deltas.size();
+    }
+
+    /**
+     * 메모리에 있는 카운터 수
+     * */
+    public int size() {
+        return counters.size();
+    }
+
+    private void retireIdle() {
+        counters.forEach((id, counter) -> {
+            if (counter.pending() == 0) {
+                counters.computeIfPresent(id, (key, current) -> current.retire() ? null : current);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            counters.remove(event.getPostId());
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (schedule == null) {
+            schedule = flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (this) {
+            if (schedule == null) {
+                return;
+            }
+            schedule.cancel(false);
+            schedule = null;
+        }
+        flush();
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return schedule != null;
+    }
+
+    // 웹 서버(Integer.MAX_VALUE, MAX_VALUE - 1)가 멈춘 뒤에 멈춰야 마지막 요청의 조회수까지 flush 한다.
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 2048;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("failed to flush views", e);
+        }
+    }
+
+    private static class Counter {
+        private final LongAdder views = new LongAdder();
+
+        // flush 스레드만 바꾼다.
+        private volatile long flushed;
+
+        // 맵에서 빠진 카운터. 여기에 더한 조회는 되돌리고 새 카운터에 더한다.
+        private volatile boolean retired;
+
+        private long pending() {
+            return views.sum() - flushed;
+        }
+
+        private boolean tryIncrement() {
+            views.increment();
+            if (!retired) {
+                return true;
+            }
+            views.decrement();
+            return false;
+        }
+
+        /**
+         * 반영할 조회가 없으면 retired 로 표시하고 true. tryIncrement 와 서로 상대의 쓰기를 보므로 조회를 잃지 않는다.
+         * */
+        private boolean retire() {
+            retired = true;
+            if (pending() == 0) {
+                return true;
+            }
+            retired = false;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.hjlog.hjlog.datasource;
+
+/**
+ * 이 범위 안에서는 읽기 전용 트랜잭션도 복제본이 아니라 primary 에서 읽는다.
+ * begin 으로 열고 close 로 닫는다. 겹쳐 열어도 가장 바깥 범위가 닫힐 때까지 유지된다.
+ * */
+public final class PrimaryOnly implements AutoCloseable {
+
+    private static final ThreadLocal<PrimaryOnly> CURRENT = new ThreadLocal<>();
+
+    private final PrimaryOnly parent;
+
+    private PrimaryOnly(PrimaryOnly parent) {
+        this.parent = parent;
+    }
+
+    public static PrimaryOnly begin() {
+        PrimaryOnly scope = new PrimaryOnly(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+}
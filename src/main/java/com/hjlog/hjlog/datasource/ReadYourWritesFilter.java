@@ -0,0 +1,72 @@
+package com.hjlog.hjlog.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 쓰기 요청을 보낸 클라이언트는 sticky-window 동안 primary 에서 읽는다.
+ * 복제본이 따라오기 전에 방금 쓴 글이 안 보이는 일을 막는다. 기한은 쿠키에 담아서 서버에 상태를 두지 않는다.
+ * */
+@Component
+@ConditionalOnProperty("hjlog.datasource.replicas[0].url")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "hjlog-primary-until";
+
+    private final Duration stickyWindow;
+
+    public ReadYourWritesFilter(@Value("${hjlog.datasource.sticky-window:5s}") Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isWrite(request)) {
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(System.currentTimeMillis() + stickyWindow.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, stickyWindow.toSeconds()));
+            response.addCookie(cookie);
+        } else if (!isSticky(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        try (PrimaryOnly ignored = PrimaryOnly.begin()) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+
+    private static boolean isSticky(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -12,8 +12,11 @@ import javax.persistence.*;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Post {
 
+    // IDENTITY 는 insert 마다 id 를 받아와야 해서 JDBC batch 가 꺼진다.
+    // 인스턴스마다 50 개씩 미리 받아 가므로 인스턴스가 여럿이면 id 순서가 작성 순서와 다를 수 있다.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq_generator")
+    @SequenceGenerator(name = "post_seq_generator", sequenceName = "post_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -21,12 +24,38 @@ public class Post {
     @Lob
     private String content;
 
+    // 수정될 때마다 올라간다. ETag 와 낙관적 락에 함께 쓴다.
+    @Version
+    private Long version;
+
+    // PostViewCounter 가 모아서 더한다. version 은 올리지 않는다.
+    private long views;
+
     @Builder
     public Post(String title, String content) {
         this.title = title;
         this.content = content;
     }
 
+    /**
+     * JPA 를 거치지 않는 저장소가 읽은 행으로 만든다.
+     * */
+    public static Post of(Long id, String title, String content, Long version, long views) {
+        Post post = new Post(title, content);
+        post.id = id;
+        post.version = version;
+        post.views = views;
+        return post;
+    }
+
+    /**
+     * JPA 를 거치지 않는 저장소가 저장한 뒤 id 와 version 을 채운다.
+     * */
+    public void assign(Long id, Long version) {
+        this.id = id;
+        this.version = version;
+    }
+
     public PostEditor.PostEditorBuilder toEditor() {
         return PostEditor.builder()
                 .title(title)
@@ -0,0 +1,43 @@
+package com.hjlog.hjlog.event;
+
+import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.domain.PostEditor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 글이 작성/수정/삭제되면 발행된다.
+ * 리스너가 DB 를 다시 읽지 않도록 변경 후의 제목과 내용을 함께 담는다. (삭제는 null)
+ * */
+@Getter
+@ToString(of = {"type", "postId"})
+public class PostChangedEvent {
+
+    public enum Type {
+        CREATED, EDITED, DELETED
+    }
+
+    private final Type type;
+    private final Long postId;
+    private final String title;
+    private final String content;
+
+    public PostChangedEvent(Type type, Long postId, String title, String content) {
+        this.type = type;
+        this.postId = postId;
+        this.title = title;
+        this.content = content;
+    }
+
+    public static PostChangedEvent created(Post post) {
+        return new PostChangedEvent(Type.CREATED, post.getId(), post.getTitle(), post.getContent());
+    }
+
+    public static PostChangedEvent edited(Long postId, PostEditor postEditor) {
+        return new PostChangedEvent(Type.EDITED, postId, postEditor.getTitle(), postEditor.getContent());
+    }
+
+    public static PostChangedEvent deleted(Long postId) {
+        return new PostChangedEvent(Type.DELETED, postId, null, null);
+    }
+}
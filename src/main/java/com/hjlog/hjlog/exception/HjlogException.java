@@ -1,14 +1,13 @@
 package com.hjlog.hjlog.exception;
 
-import lombok.Getter;
-
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
-@Getter
 public abstract class HjlogException extends RuntimeException {
 
-    public final Map<String, String> validation = new HashMap<>();
+    // 대부분의 예외는 validation 이 없어서 필요할 때 만든다.
+    private Map<String, String> validation;
 
     public HjlogException(String message) {
         super(message);
@@ -18,9 +17,23 @@ public abstract class HjlogException extends RuntimeException {
         super(message, cause);
     }
 
+    /**
+     * 스택 트레이스를 남기지 않는다. 자주 나고 원인이 뻔한 예외(404 등)에 쓴다.
+     * */
+    protected HjlogException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
     public abstract int getStatusCode();
 
+    public Map<String, String> getValidation() {
+        return validation != null ? validation : Collections.emptyMap();
+    }
+
     public void addValidation(String fieldName, String message) {
+        if (validation == null) {
+            validation = new HashMap<>();
+        }
         validation.put(fieldName, message);
     }
 }
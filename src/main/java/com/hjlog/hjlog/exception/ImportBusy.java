@@ -0,0 +1,15 @@
+package com.hjlog.hjlog.exception;
+
+public class ImportBusy extends HjlogException {
+
+    private static final String MESSAGE = "진행 중인 가져오기가 많습니다. 잠시 후 다시 시도해주세요.";
+
+    public ImportBusy() {
+        super(MESSAGE);
+    }
+
+    @Override
+    public int getStatusCode() {
+        return 503;
+    }
+}
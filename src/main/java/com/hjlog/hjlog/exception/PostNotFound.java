@@ -5,7 +5,7 @@ public class PostNotFound extends HjlogException {
     private static final String MESSAGE = "존재하지 않는 글입니다.";
 
     public PostNotFound() {
-        super(MESSAGE);
+        super(MESSAGE, false);
     }
 
     @Override
@@ -0,0 +1,15 @@
+package com.hjlog.hjlog.exception;
+
+public class PostWriteNotFound extends HjlogException {
+
+    private static final String MESSAGE = "존재하지 않거나 만료된 작성 요청입니다.";
+
+    public PostWriteNotFound() {
+        super(MESSAGE, false);
+    }
+
+    @Override
+    public int getStatusCode() {
+        return 404;
+    }
+}
@@ -0,0 +1,15 @@
+package com.hjlog.hjlog.exception;
+
+public class PreconditionFailed extends HjlogException {
+
+    private static final String MESSAGE = "글이 이미 수정되었습니다. 다시 조회 후 수정해주세요.";
+
+    public PreconditionFailed() {
+        super(MESSAGE);
+    }
+
+    @Override
+    public int getStatusCode() {
+        return 412;
+    }
+}
@@ -0,0 +1,15 @@
+package com.hjlog.hjlog.exception;
+
+public class WriteBufferFull extends HjlogException {
+
+    private static final String MESSAGE = "요청이 많아 글을 받을 수 없습니다. 잠시 후 다시 시도해주세요.";
+
+    public WriteBufferFull() {
+        super(MESSAGE);
+    }
+
+    @Override
+    public int getStatusCode() {
+        return 503;
+    }
+}
@@ -0,0 +1,306 @@
+package com.hjlog.hjlog.feed;
+
+import com.hjlog.hjlog.datasource.PrimaryOnly;
+import com.hjlog.hjlog.event.PostChangedEvent;
+import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.PostSummaryResponse;
+import com.hjlog.hjlog.service.PostService;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import javax.annotation.PreDestroy;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hjlog.hjlog.response.PostSummaryResponse.EXCERPT_LENGTH;
+
+/**
+ * 최신 글 size 개의 Atom 피드 (GET /feed.xml)
+ * 직렬화한 바이트와 ETag, Last-Modified 를 들고 있다가 요청에는 그대로 내려준다.
+ * 작성은 맨 앞에 넣고, 창 안의 글 수정은 그 항목만 바꾸고, 창 안의 글 삭제는 항목을 빼고 빈자리를 DB 에서 다시 읽는다.
+ * 바뀔 때마다 바로 만들지 않고 debounce 동안 모아서 한 번만 다시 읽고 직렬화한다.
+ * 글에 작성/수정 시각이 없어서 항목의 updated 는 이 서버가 그 내용을 처음 본 시각이다.
+ * */
+@Slf4j
+@Component
+public class PostAtomFeed implements SmartInitializingSingleton {
+
+    private static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+
+    private final PostService postService;
+    private final int size;
+    private final long debounceMillis;
+    private final String baseUrl;
+    private final String title;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final AtomicBoolean reloadNeeded = new AtomicBoolean();
+    // entries 를 바꿀 때마다 올린다. DB 를 읽는 사이에 바뀌었으면 읽은 창을 버린다.
+    private long changes;
+    private final AtomicLong buildCount = new AtomicLong();
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "post-atom-feed-rebuilder");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Feed feed;
+
+    public PostAtomFeed(PostService postService,
+                        @Value("${hjlog.feed.size:20}") int size,
+                        @Value("${hjlog.feed.debounce:200ms}") Duration debounce,
+                        @Value("${hjlog.feed.base-url:http://localhost:8080}") String baseUrl,
+                        @Value("${hjlog.feed.title:hjlog}") String title) {
+        this.postService = postService;
+        this.size = size;
+        this.debounceMillis = debounce.toMillis();
+        this.baseUrl = baseUrl;
+        this.title = title;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+        rebuild();
+    }
+
+    public Feed get() {
+        return feed;
+    }
+
+    public long getBuildCount() {
+        return buildCount.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Instant now = Instant.now();
+        boolean changed;
+
+        synchronized (entries) {
+            changes++;
+            int index = indexOf(event.getPostId());
+            switch (event.getType()) {
+                case CREATED:
+                    entries.add(0, new Entry(event.getPostId(), event.getTitle(), excerpt(event.getContent()), now));
+                    entries.sort((a, b) -> Long.compare(b.id, a.id));
+                    if (entries.size() > size) {
+                        entries.remove(entries.size() - 1);
+                    }
+                    changed = indexOf(event.getPostId()) >= 0;
+                    break;
+                case EDITED:
+                    changed = index >= 0;
+                    if (changed) {
+                        Entry old = entries.get(index);
+                        entries.set(index, new Entry(old.id,
+                                event.getTitle() != null ? event.getTitle() : old.title,
+                                event.getContent() != null ? excerpt(event.getContent()) : old.summary,
+                                now));
+                    }
+                    break;
+                default:
+                    changed = index >= 0;
+                    if (changed) {
+                        // 빈자리는 rebuild 에서 채운다. 커밋하는 스레드에서 DB 를 읽지 않는다.
+                        entries.remove(index);
+                        reloadNeeded.set(true);
+                    }
+            }
+        }
+
+        if (changed) {
+            scheduleRebuild();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.schedule(this::rebuild, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 창을 DB 에서 다시 읽는다. 이미 있던 항목의 updated 는 그대로 둔다.
+     * 읽는 동안 다른 변경이 들어왔으면 바꾸지 않고 false
+     * */
+    private boolean reload() {
+        long before;
+        synchronized (entries) {
+            before = changes;
+        }
+
+        List<PostSummaryResponse> posts;
+        try (PrimaryOnly ignored = PrimaryOnly.begin()) {
+            posts = postService.getList(PostSearch.builder()
+                    .page(1)
+                    .size(size)
+                    .build());
+        }
+
+        Instant now = Instant.now();
+        synchronized (entries) {
+            if (changes != before) {
+                return false;
+            }
+
+            List<Entry> reloaded = new ArrayList<>(posts.size());
+            for (PostSummaryResponse post : posts) {
+                int index = indexOf(post.getId());
+                Instant updated = index >= 0 ? entries.get(index).updated : now;
+                reloaded.add(new Entry(post.getId(), post.getTitle(), post.getContent(), updated));
+            }
+            entries.clear();
+            entries.addAll(reloaded);
+        }
+        return true;
+    }
+
+    private void rebuild() {
+        rebuildScheduled.set(false);
+
+        if (reloadNeeded.getAndSet(false)) {
+            boolean reloaded;
+            try {
+                reloaded = reload();
+            } catch (RuntimeException e) {
+                log.warn("failed to reload atom feed", e);
+                reloaded = false;
+            }
+            if (!reloaded) {
+                // 지운 항목은 이미 빠졌으니 짧아진 창으로 만들어 두고 다음에 다시 읽는다.
+                reloadNeeded.set(true);
+                scheduleRebuild();
+            }
+        }
+
+        List<Entry> snapshot;
+        synchronized (entries) {
+            snapshot = new ArrayList<>(entries);
+        }
+
+        try {
+            feed = serialize(snapshot);
+            buildCount.incrementAndGet();
+        } catch (XMLStreamException | RuntimeException e) {
+            log.warn("failed to build atom feed", e);
+        }
+    }
+
+    private Feed serialize(List<Entry> snapshot) throws XMLStreamException {
+        Instant updated = snapshot.stream()
+                .map(entry -> entry.updated)
+                .max(Instant::compareTo)
+                .orElse(Instant.EPOCH)
+                .truncatedTo(ChronoUnit.SECONDS);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(out, "UTF-8");
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeStartElement("feed");
+        xml.writeDefaultNamespace(ATOM_NS);
+        element(xml, "id", baseUrl + "/feed.xml");
+        element(xml, "title", title);
+        element(xml, "updated", updated.toString());
+        link(xml, "self", baseUrl + "/feed.xml");
+        xml.writeStartElement("author");
+        element(xml, "name", title);
+        xml.writeEndElement();
+
+        for (Entry entry : snapshot) {
+            String url = baseUrl + "/posts/" + entry.id;
+            xml.writeStartElement("entry");
+            element(xml, "id", url);
+            element(xml, "title", entry.title);
+            element(xml, "updated", entry.updated.truncatedTo(ChronoUnit.SECONDS).toString());
+            link(xml, "alternate", url);
+            element(xml, "summary", entry.summary);
+            xml.writeEndElement();
+        }
+
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.close();
+
+        byte[] bytes = out.toByteArray();
+        return new Feed(bytes, "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"", updated.toEpochMilli());
+    }
+
+    private static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text != null ? text : "");
+        xml.writeEndElement();
+    }
+
+    private static void link(XMLStreamWriter xml, String rel, String href) throws XMLStreamException {
+        xml.writeEmptyElement("link");
+        xml.writeAttribute("rel", rel);
+        xml.writeAttribute("href", href);
+    }
+
+    private int indexOf(Long id) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).id.equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String excerpt(String content) {
+        if (content == null) {
+            return "";
+        }
+        return content.length() <= EXCERPT_LENGTH ? content : content.substring(0, EXCERPT_LENGTH);
+    }
+
+    @Getter
+    public static class Feed {
+        private final byte[] body;
+        private final String eTag;
+        private final long lastModified;
+
+        private Feed(byte[] body, String eTag, long lastModified) {
+            this.body = body;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static class Entry {
+        private final Long id;
+        private final String title;
+        private final String summary;
+        private final Instant updated;
+
+        private Entry(Long id, String title, String summary, Instant updated) {
+            this.id = id;
+            this.title = title;
+            this.summary = summary;
+            this.updated = updated;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.hjlog.hjlog.feed;
+
+import com.hjlog.hjlog.event.PostChangedEvent;
+import com.hjlog.hjlog.response.PostChangeResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 글 변경을 SSE 로 흘려보낸다. (GET /posts/changes)
+ * 커밋된 뒤에 받은 PostChangedEvent 에 1 부터 증가하는 seq 를 붙이고, 최근 replay-size 개를 링 버퍼에 남긴다.
+ * Last-Event-ID 로 다시 붙으면 그 다음 seq 부터 이어서 보내고, 이미 버퍼에서 밀려났으면 reset 이벤트를 보낸다.
+ * 구독자마다 크기가 정해진 큐가 있어서, 받는 속도가 느려 큐가 차면 연결을 끊는다.
+ * */
+@Slf4j
+@Component
+public class PostChangeFeed {
+
+    public static final String RESET_EVENT = "reset";
+
+    private final PostChangeResponse[] ring;
+    private final int subscriberBuffer;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender;
+
+    // ring 과 seq 는 append/subscribe 에서 같은 락으로 다룬다.
+    private long lastSeq;
+
+    public PostChangeFeed(@Value("${hjlog.changes.replay-size:1024}") int replaySize,
+                          @Value("${hjlog.changes.subscriber-buffer:1024}") int subscriberBuffer,
+                          @Value("${hjlog.changes.timeout:30m}") Duration timeout,
+                          @Value("${hjlog.changes.sender-threads:4}") int senderThreads) {
+        this.ring = new PostChangeResponse[replaySize];
+        this.subscriberBuffer = subscriberBuffer;
+        this.timeoutMillis = timeout.toMillis();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "post-change-feed-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        List<Subscriber> slow = new ArrayList<>();
+        synchronized (this) {
+            PostChangeResponse change = new PostChangeResponse(++lastSeq, event);
+            ring[(int) (change.getSeq() % ring.length)] = change;
+
+            // seq 를 붙인 락 안에서 큐에 넣어야 구독자마다 seq 순서대로 받고, subscribe 의 replay 와 겹치지 않는다.
+            // offer 는 큐에 넣기만 하고 막히지 않는다.
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.offer(change)) {
+                    slow.add(subscriber);
+                }
+            }
+        }
+
+        // 끊을 때는 보내는 중인 emitter 를 기다릴 수 있어서 락 밖에서 한다.
+        for (Subscriber subscriber : slow) {
+            log.info("disconnecting slow post change subscriber, {} events pending", subscriber.queue.size());
+            subscriber.finish(null);
+        }
+    }
+
+    /**
+     * @param lastEventId 마지막으로 받은 seq. null 이면 지금 이후의 변경만 보낸다.
+     * */
+    public SseEmitter subscribe(Long lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis));
+
+        synchronized (this) {
+            if (lastEventId != null && lastEventId != lastSeq) {
+                long oldest = Math.max(1, lastSeq - ring.length + 1);
+                // lastEventId > lastSeq 는 서버가 다시 떠서 seq 가 처음부터 시작된 경우
+                if (lastEventId > lastSeq || lastEventId + 1 < oldest || lastSeq - lastEventId > subscriberBuffer) {
+                    subscriber.reset = true;
+                } else {
+                    for (long seq = lastEventId + 1; seq <= lastSeq; seq++) {
+                        subscriber.queue.offer(ring[(int) (seq % ring.length)]);
+                    }
+                }
+            }
+            // 락 안에서 등록해야 replay 와 새 이벤트 사이에 빠지거나 겹치는 seq 가 없다.
+            subscribers.add(subscriber);
+        }
+
+        subscriber.schedule();
+        return subscriber.emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.close(null));
+        sender.shutdownNow();
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<PostChangeResponse> queue = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean reset;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(() -> subscribers.remove(this));
+            emitter.onTimeout(() -> close(null));
+            emitter.onError(e -> close(null));
+        }
+
+        /**
+         * 큐가 차면 더 받지 않도록 닫힌 것으로 표시하고 false. 연결은 finish 로 끊는다.
+         * */
+        private boolean offer(PostChangeResponse change) {
+            if (closed) {
+                return true;
+            }
+            if (!queue.offer(change)) {
+                closed = true;
+                subscribers.remove(this);
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        private void schedule() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                if (reset) {
+                    reset = false;
+                    emitter.send(SseEmitter.event().name(RESET_EVENT).data(""));
+                }
+
+                PostChangeResponse change;
+                while (!closed && (change = queue.poll()) != null) {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.getSeq()))
+                            .name(change.getType().name().toLowerCase())
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+
+            // drain 을 끝내는 사이에 들어온 이벤트
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void close(Throwable cause) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            finish(cause);
+        }
+
+        private void finish(Throwable cause) {
+            subscribers.remove(this);
+            queue.clear();
+
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                log.debug("post change subscriber already completed", e);
+            }
+            if (cause != null) {
+                log.debug("post change subscriber closed", cause);
+            }
+        }
+    }
+}
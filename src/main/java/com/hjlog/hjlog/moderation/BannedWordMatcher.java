@@ -0,0 +1,181 @@
+package com.hjlog.hjlog.moderation;
+
+import com.hjlog.hjlog.exception.InvalidRequest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 금지어 사전을 Aho-Corasick 오토마톤으로 만들어 둔다.
+ * 금지어가 몇 개든 본문을 한 번만 훑는다. 영문은 대소문자를 구분하지 않는다.
+ * 만든 뒤에는 바뀌지 않으므로 여러 스레드에서 그대로 써도 된다.
+ * */
+public final class BannedWordMatcher {
+
+    private static final BannedWordMatcher EMPTY = new BannedWordMatcher(List.of());
+
+    private final String[] words;
+
+    // 노드별 자식 전이. keys 는 정렬되어 있어서 이진 탐색한다.
+    private final char[][] keys;
+    private final int[][] next;
+    private final int[] fail;
+
+    // 이 노드에서 끝나는(실패 링크를 따라가서 끝나는 것 포함) 금지어, 없으면 -1
+    private final int[] match;
+
+    private BannedWordMatcher(Collection<String> dictionary) {
+        List<String> words = new ArrayList<>();
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        children.add(new TreeMap<>());
+        ends.add(-1);
+
+        for (String raw : dictionary) {
+            String word = raw.trim();
+            if (word.isEmpty()) {
+                continue;
+            }
+
+            int node = 0;
+            for (int i = 0; i < word.length(); i++) {
+                char c = Character.toLowerCase(word.charAt(i));
+                Integer child = children.get(node).get(c);
+                if (child == null) {
+                    child = children.size();
+                    children.get(node).put(c, child);
+                    children.add(new TreeMap<>());
+                    ends.add(-1);
+                }
+                node = child;
+            }
+
+            if (ends.get(node) < 0) {
+                ends.set(node, words.size());
+                words.add(word);
+            }
+        }
+
+        int size = children.size();
+        this.words = words.toArray(new String[0]);
+        this.keys = new char[size][];
+        this.next = new int[size][];
+        this.fail = new int[size];
+        this.match = new int[size];
+
+        for (int node = 0; node < size; node++) {
+            TreeMap<Character, Integer> edges = children.get(node);
+            keys[node] = new char[edges.size()];
+            next[node] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                keys[node][i] = edge.getKey();
+                next[node][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        // BFS 로 실패 링크를 잇는다. 부모가 먼저 처리되므로 match 도 함께 채운다.
+        match[0] = -1;
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : next[0]) {
+            fail[child] = 0;
+            match[child] = ends.get(child);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < keys[node].length; i++) {
+                char c = keys[node][i];
+                int child = next[node][i];
+
+                int f = fail[node];
+                while (f != 0 && transition(f, c) < 0) {
+                    f = fail[f];
+                }
+                int target = transition(f, c);
+                fail[child] = target >= 0 ? target : 0;
+                match[child] = ends.get(child) >= 0 ? ends.get(child) : match[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    public static BannedWordMatcher of(Collection<String> dictionary) {
+        return dictionary.isEmpty() ? EMPTY : new BannedWordMatcher(dictionary);
+    }
+
+    public static BannedWordMatcher empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * text 에서 가장 먼저 끝나는 금지어. 없으면 null
+     * */
+    public String findFirst(String text) {
+        if (text == null || words.length == 0) {
+            return null;
+        }
+
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+
+            int target = transition(state, c);
+            while (target < 0 && state != 0) {
+                state = fail[state];
+                target = transition(state, c);
+            }
+            state = target >= 0 ? target : 0;
+
+            if (match[state] >= 0) {
+                return words[match[state]];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 제목과 내용에 금지어가 있으면 들어간 필드를 모두 담아서 던진다.
+     * */
+    public void validate(String title, String content) {
+        String inTitle = findFirst(title);
+        String inContent = findFirst(content);
+        if (inTitle == null && inContent == null) {
+            return;
+        }
+
+        InvalidRequest invalidRequest = new InvalidRequest();
+        if (inTitle != null) {
+            invalidRequest.addValidation("title", message("제목", inTitle));
+        }
+        if (inContent != null) {
+            invalidRequest.addValidation("content", message("내용", inContent));
+        }
+        throw invalidRequest;
+    }
+
+    /**
+     * "제목에 바보를 포함할 수 없습니다." 처럼 받침에 맞춰 을/를 을 붙인다.
+     * */
+    public static String message(String fieldLabel, String word) {
+        char last = word.charAt(word.length() - 1);
+        boolean hasFinalConsonant = last >= '가' && last <= '힣' && (last - '가') % 28 != 0;
+        return fieldLabel + "에 " + word + (hasFinalConsonant ? "을" : "를") + " 포함할 수 없습니다.";
+    }
+
+    private int transition(int node, char c) {
+        int i = Arrays.binarySearch(keys[node], c);
+        return i >= 0 ? next[node][i] : -1;
+    }
+}
@@ -0,0 +1,104 @@
+package com.hjlog.hjlog.moderation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 금지어 사전 (hjlog.banned-words.location)
+ * 한 줄에 하나, # 으로 시작하는 줄은 주석이다.
+ * 파일이면 reload-interval 마다 수정 시각을 보고, 바뀌었으면 다시 읽어서 재시작 없이 반영한다.
+ * 다시 읽다가 실패하면 이전 사전을 그대로 쓴다.
+ * */
+@Slf4j
+@Component
+public class BannedWords {
+
+    private final Resource location;
+    private final ScheduledExecutorService reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "banned-words-reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile BannedWordMatcher matcher = BannedWordMatcher.empty();
+    private long lastModified;
+
+    public BannedWords(@Value("${hjlog.banned-words.location:classpath:banned-words.txt}") Resource location,
+                       @Value("${hjlog.banned-words.reload-interval:30s}") Duration reloadInterval) {
+        this.location = location;
+        reload();
+
+        if (location.isFile()) {
+            long interval = reloadInterval.toMillis();
+            reloader.scheduleWithFixedDelay(this::reloadIfModified, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public BannedWordMatcher current() {
+        return matcher;
+    }
+
+    /**
+     * 사전을 다시 읽는다. 실패하면 false 를 돌려주고 이전 사전을 유지한다.
+     * */
+    public synchronized boolean reload() {
+        if (!location.exists()) {
+            log.warn("banned words dictionary not found: {}", location);
+            return false;
+        }
+
+        try {
+            long modified = location.isFile() ? location.lastModified() : 0;
+            matcher = BannedWordMatcher.of(read());
+            lastModified = modified;
+            log.info("banned words loaded: {} words from {}", matcher.size(), location);
+            return true;
+        } catch (IOException e) {
+            log.warn("failed to load banned words from {}", location, e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reloader.shutdownNow();
+    }
+
+    private synchronized void reloadIfModified() {
+        try {
+            if (location.lastModified() != lastModified) {
+                reload();
+            }
+        } catch (IOException e) {
+            log.warn("failed to check banned words dictionary {}", location, e);
+        }
+    }
+
+    private List<String> read() throws IOException {
+        List<String> words = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String word = line.trim();
+                if (!word.isEmpty() && !word.startsWith("#")) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+}
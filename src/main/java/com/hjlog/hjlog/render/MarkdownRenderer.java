@@ -0,0 +1,47 @@
+package com.hjlog.hjlog.render;
+
+import org.commonmark.node.Node;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 글 내용(Markdown)을 HTML 로 바꾼다.
+ * 본문의 HTML 태그는 이스케이프하고 javascript: 같은 링크는 걸러서 그대로 내려줘도 안전하다.
+ * 결과는 문자열로 모으지 않고 바로 스트림에 쓴다.
+ * */
+@Component
+public class MarkdownRenderer {
+
+    private final Parser parser = Parser.builder().build();
+    private final HtmlRenderer renderer = HtmlRenderer.builder()
+            .escapeHtml(true)
+            .sanitizeUrls(true)
+            .build();
+
+    public void render(String markdown, OutputStream out) throws IOException {
+        Node document = parser.parseReader(new StringReader(markdown != null ? markdown : ""));
+
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        renderer.render(document, writer);
+        writer.flush();
+    }
+
+    public byte[] render(String markdown) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            render(markdown, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // ByteArrayOutputStream 은 IOException 을 던지지 않는다.
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,10 @@
+package com.hjlog.hjlog.repository;
+
+import com.hjlog.hjlog.domain.Post;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * 기본 저장소. PostRepositoryCustom 은 JpaPostRepositoryImpl 이 구현한다.
+ * */
+public interface JpaPostRepository extends JpaRepository<Post, Long>, PostRepository {
+}
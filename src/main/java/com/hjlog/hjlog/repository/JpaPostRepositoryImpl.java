@@ -0,0 +1,154 @@
+package com.hjlog.hjlog.repository;
+
+import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.domain.PostEditor;
+import com.hjlog.hjlog.domain.QPost;
+import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.PostExportResponse;
+import com.hjlog.hjlog.response.PostSummaryResponse;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.hjlog.hjlog.domain.QPost.*;
+import static com.hjlog.hjlog.response.PostSummaryResponse.EXCERPT_LENGTH;
+
+@RequiredArgsConstructor
+public class JpaPostRepositoryImpl implements PostRepositoryCustom{
+
+    private final JPAQueryFactory jpaQueryFactory;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Value("${hjlog.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    @Override
+    public List<PostSummaryResponse> getList(PostSearch postSearch) {
+        return jpaQueryFactory.select(Projections.constructor(PostSummaryResponse.class,
+                        post.id,
+                        post.title,
+                        post.content.substring(0, EXCERPT_LENGTH),
+                        post.version))
+                .from(post)
+                .where(idLessThanCursor(postSearch))
+                .limit(postSearch.getLimit())
+                .offset(postSearch.getOffset())
+                .orderBy(post.id.desc())
+                .fetch();
+    }
+
+    @Override
+    public List<PostVersion> getListVersions(PostSearch postSearch) {
+        return jpaQueryFactory.select(Projections.constructor(PostVersion.class,
+                        post.id,
+                        post.version))
+                .from(post)
+                .where(idLessThanCursor(postSearch))
+                .limit(postSearch.getLimit())
+                .offset(postSearch.getOffset())
+                .orderBy(post.id.desc())
+                .fetch();
+    }
+
+    @Override
+    public Long getVersion(Long id) {
+        return jpaQueryFactory.select(post.version.coalesce(0L))
+                .from(post)
+                .where(post.id.eq(id))
+                .fetchOne();
+    }
+
+    @Override
+    public List<Post> getAll(Collection<Long> ids) {
+        return jpaQueryFactory.selectFrom(post)
+                .where(post.id.in(ids))
+                .fetch();
+    }
+
+    @Override
+    public void insertAll(List<Post> posts) {
+        for (int i = 0; i < posts.size(); i++) {
+            entityManager.persist(posts.get(i));
+
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Override
+    public Stream<PostExportResponse> streamAll(Long sinceId) {
+        // DTO 로 바로 읽으므로 영속성 컨텍스트에 엔티티가 쌓이지 않는다.
+        return jpaQueryFactory.select(Projections.constructor(PostExportResponse.class,
+                        post.id,
+                        post.title,
+                        post.content))
+                .from(post)
+                .where(sinceId != null ? post.id.gt(sinceId) : null)
+                .orderBy(post.id.asc())
+                .setHint(QueryHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .stream();
+    }
+
+    @Override
+    public long update(Long id, Long expectedVersion, PostEditor postEditor) {
+        JPAUpdateClause update = jpaQueryFactory.update(post)
+                .set(post.version, post.version.add(1L));
+
+        if (postEditor.getTitle() != null) {
+            update.set(post.title, postEditor.getTitle());
+        }
+        if (postEditor.getContent() != null) {
+            update.set(post.content, postEditor.getContent());
+        }
+
+        return update.where(post.id.eq(id), versionEq(expectedVersion))
+                .execute();
+    }
+
+    @Override
+    public void addViews(Map<Long, Long> deltas) {
+        // JPQL bulk update 는 JDBC batch 로 묶이지 않아서 JdbcTemplate 으로 보낸다.
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> args.add(new Object[]{delta, id}));
+
+        jdbcTemplate.batchUpdate("update post set views = views + ? where id = ?", args);
+    }
+
+    @Override
+    public long remove(Long id) {
+        return jpaQueryFactory.delete(post)
+                .where(post.id.eq(id))
+                .execute();
+    }
+
+    private BooleanExpression versionEq(Long expectedVersion) {
+        return expectedVersion != null ? post.version.eq(expectedVersion) : null;
+    }
+
+    private BooleanExpression idLessThanCursor(PostSearch postSearch) {
+        Long lastId = postSearch.getLastId();
+        return lastId != null ? post.id.lt(lastId) : null;
+    }
+}
@@ -1,7 +1,25 @@
 package com.hjlog.hjlog.repository;
 
 import com.hjlog.hjlog.domain.Post;
-import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface PostRepository extends JpaRepository<Post, Long>, PostRepositoryCustom {
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 글 저장소. 서비스는 이 인터페이스만 보고, 구현은 설정으로 고른다.
+ * 기본은 JpaPostRepository 이고, 다른 구현은 @Primary 로 등록해서 바꾼다.
+ * */
+public interface PostRepository extends PostRepositoryCustom {
+
+    <S extends Post> S save(S post);
+
+    <S extends Post> List<S> saveAll(Iterable<S> posts);
+
+    Optional<Post> findById(Long id);
+
+    List<Post> findAll();
+
+    long count();
+
+    void deleteAll();
 }
@@ -1,11 +1,55 @@
 package com.hjlog.hjlog.repository;
 
 import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.domain.PostEditor;
 import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.PostExportResponse;
+import com.hjlog.hjlog.response.PostSummaryResponse;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface PostRepositoryCustom {
 
-    List<Post> getList(PostSearch postSearch);
+    List<PostSummaryResponse> getList(PostSearch postSearch);
+
+    /**
+     * getList 와 같은 페이지의 (id, version) 만 읽는다.
+     * */
+    List<PostVersion> getListVersions(PostSearch postSearch);
+
+    /**
+     * 글이 없으면 null
+     * */
+    Long getVersion(Long id);
+
+    /**
+     * 한 번의 IN 쿼리로 읽는다. 순서는 보장하지 않고, 없는 id 는 빠진다.
+     * */
+    List<Post> getAll(Collection<Long> ids);
+
+    void insertAll(List<Post> posts);
+
+    /**
+     * 글을 읽지 않고 postEditor 에 값이 있는 필드만 바로 UPDATE 한다.
+     * expectedVersion 이 있으면 version 이 같을 때만 바꾼다. 바뀐 행 수를 돌려준다.
+     * */
+    long update(Long id, Long expectedVersion, PostEditor postEditor);
+
+    /**
+     * id 별 조회수 증가분을 한 번의 JDBC batch UPDATE 로 더한다. version 은 바꾸지 않는다.
+     * */
+    void addViews(Map<Long, Long> deltas);
+
+    /**
+     * 글을 읽지 않고 바로 DELETE 한다. 지운 행 수를 돌려준다.
+     * */
+    long remove(Long id);
+
+    /**
+     * sinceId 보다 큰 글을 id 오름차순으로 흘려보낸다. 트랜잭션 안에서 사용하고 반드시 close 해야 한다.
+     * */
+    Stream<PostExportResponse> streamAll(Long sinceId);
 }
@@ -1,26 +0,0 @@
-package com.hjlog.hjlog.repository;
-
-import com.hjlog.hjlog.domain.Post;
-import com.hjlog.hjlog.domain.QPost;
-import com.hjlog.hjlog.request.PostSearch;
-import com.querydsl.jpa.impl.JPAQueryFactory;
-import lombok.RequiredArgsConstructor;
-
-import java.util.List;
-
-import static com.hjlog.hjlog.domain.QPost.*;
-
-@RequiredArgsConstructor
-public class PostRepositoryImpl implements PostRepositoryCustom{
-
-    private final JPAQueryFactory jpaQueryFactory;
-
-    @Override
-    public List<Post> getList(PostSearch postSearch) {
-        return jpaQueryFactory.selectFrom(post)
-                .limit(postSearch.getSize())
-                .offset(postSearch.getOffset())
-                .orderBy(post.id.desc())
-                .fetch();
-    }
-}
@@ -0,0 +1,15 @@
+package com.hjlog.hjlog.repository;
+
+import lombok.Getter;
+
+@Getter
+public class PostVersion {
+
+    private final Long id;
+    private final Long version;
+
+    public PostVersion(Long id, Long version) {
+        this.id = id;
+        this.version = version;
+    }
+}
@@ -0,0 +1,167 @@
+package com.hjlog.hjlog.repository.log;
+
+import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.domain.PostEditor;
+import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.repository.PostVersion;
+import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.PostExportResponse;
+import com.hjlog.hjlog.response.PostSummaryResponse;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.hjlog.hjlog.response.PostSummaryResponse.EXCERPT_LENGTH;
+
+/**
+ * PostLog 위의 PostRepository. 읽기 위주 배포에서 JPA 대신 쓴다.
+ * id 는 PostLog 가 늘려가며 나눠주고, 목록과 커서는 메모리의 id 인덱스를 역순으로 훑는다.
+ * */
+public class LogPostRepository implements PostRepository, Closeable {
+
+    private final PostLog postLog;
+    private final ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "post-log-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LogPostRepository(PostLog postLog, Duration compactionInterval, double compactionThreshold) {
+        this.postLog = postLog;
+        compactor.scheduleWithFixedDelay(() -> postLog.compact(compactionThreshold),
+                compactionInterval.toMillis(), compactionInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public <S extends Post> S save(S post) {
+        long id = post.getId() == null ? postLog.nextId() : post.getId();
+        post.assign(id, postLog.put(id, post.getTitle(), post.getContent()));
+        return post;
+    }
+
+    @Override
+    public <S extends Post> List<S> saveAll(Iterable<S> posts) {
+        List<S> saved = new ArrayList<>();
+        posts.forEach(post -> saved.add(save(post)));
+        return saved;
+    }
+
+    @Override
+    public void insertAll(List<Post> posts) {
+        saveAll(posts);
+    }
+
+    @Override
+    public Optional<Post> findById(Long id) {
+        return Optional.ofNullable(postLog.read(id));
+    }
+
+    @Override
+    public List<Post> findAll() {
+        return read(postLog.index().keySet().stream(), Function.identity());
+    }
+
+    @Override
+    public long count() {
+        return postLog.index().size();
+    }
+
+    @Override
+    public void deleteAll() {
+        postLog.deleteAll(new ArrayList<>(postLog.index().keySet()));
+    }
+
+    @Override
+    public List<PostSummaryResponse> getList(PostSearch postSearch) {
+        return read(page(postSearch), post -> new PostSummaryResponse(post.getId(), post.getTitle(),
+                excerpt(post.getContent()), post.getVersion()));
+    }
+
+    @Override
+    public List<PostVersion> getListVersions(PostSearch postSearch) {
+        List<PostVersion> versions = new ArrayList<>();
+        page(postSearch).forEach(id -> {
+            PostLog.Entry entry = postLog.index().get(id);
+            if (entry != null) {
+                versions.add(new PostVersion(id, entry.getVersion()));
+            }
+        });
+        return versions;
+    }
+
+    @Override
+    public Long getVersion(Long id) {
+        PostLog.Entry entry = postLog.index().get(id);
+        return entry == null ? null : entry.getVersion();
+    }
+
+    @Override
+    public List<Post> getAll(Collection<Long> ids) {
+        return read(ids.stream(), Function.identity());
+    }
+
+    @Override
+    public long update(Long id, Long expectedVersion, PostEditor postEditor) {
+        return postLog.update(id, expectedVersion, postEditor.getTitle(), postEditor.getContent()) ? 1 : 0;
+    }
+
+    @Override
+    public void addViews(Map<Long, Long> deltas) {
+        postLog.addViews(deltas);
+    }
+
+    @Override
+    public long remove(Long id) {
+        return postLog.delete(id) ? 1 : 0;
+    }
+
+    @Override
+    public Stream<PostExportResponse> streamAll(Long sinceId) {
+        NavigableMap<Long, PostLog.Entry> index = postLog.index();
+        return (sinceId != null ? index.tailMap(sinceId, false) : index).keySet().stream()
+                .map(postLog::read)
+                .filter(Objects::nonNull)
+                .map(post -> new PostExportResponse(post.getId(), post.getTitle(), post.getContent()));
+    }
+
+    @Override
+    public void close() {
+        compactor.shutdownNow();
+        postLog.close();
+    }
+
+    private Stream<Long> page(PostSearch postSearch) {
+        Long lastId = postSearch.getLastId();
+        NavigableMap<Long, PostLog.Entry> newestFirst = postLog.index().descendingMap();
+        return (lastId != null ? newestFirst.tailMap(lastId, false) : newestFirst).keySet().stream()
+                .skip(postSearch.getOffset())
+                .limit(postSearch.getLimit());
+    }
+
+    /**
+     * 인덱스를 본 뒤에 지워진 글은 빠진다.
+     * */
+    private <T> List<T> read(Stream<Long> ids, Function<Post, T> mapper) {
+        return ids.map(postLog::read)
+                .filter(Objects::nonNull)
+                .map(mapper)
+                .collect(Collectors.toList());
+    }
+
+    private static String excerpt(String content) {
+        return content == null || content.length() <= EXCERPT_LENGTH ? content : content.substring(0, EXCERPT_LENGTH);
+    }
+}
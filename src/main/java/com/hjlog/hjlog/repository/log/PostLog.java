@@ -0,0 +1,542 @@
+package com.hjlog.hjlog.repository.log;
+
+import com.hjlog.hjlog.domain.Post;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 글을 세그먼트 파일에 이어 붙이기만 하는 로그
+ * 세그먼트는 segmentSize 크기로 메모리에 매핑하고, 다 차면 다음 번호의 세그먼트를 만든다.
+ * 레코드 = [crc32 4][length 4][type 1][id 8][본문]. crc 는 type 부터 끝까지를 덮는다.
+ * 메모리에는 id -> 마지막 PUT 과 그 뒤의 마지막 VIEWS 레코드 위치만 두고, 열 때 모든 세그먼트를 처음부터 다시 읽어서 만든다.
+ * crc 가 맞지 않거나 잘린 레코드를 만나면 그 세그먼트는 거기까지만 쓰고 나머지를 0 으로 지운다.
+ * */
+@Slf4j
+public class PostLog implements Closeable {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte VIEWS = 3;
+    private static final byte RESERVE = 4;
+
+    private static final int HEADER = 8;
+    private static final int KEY = 1 + 8;
+    private static final int VIEWS_RECORD = HEADER + KEY + 8;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Integer, Segment> segments = new TreeMap<>();
+    private final ConcurrentSkipListMap<Long, Entry> index = new ConcurrentSkipListMap<>();
+    private Segment active;
+    private long maxId;
+
+    public PostLog(Path directory, int segmentSize, boolean fsync) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(path -> path.getFileName().toString().matches("segment-\\d+\\.log"))
+                        .sorted()
+                        .forEach(this::recover);
+            }
+            active = segments.isEmpty() ? openSegment(1) : segments.lastEntry().getValue();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        log.info("post log opened: {} posts in {} segments", index.size(), segments.size());
+    }
+
+    /**
+     * id 오름차순. 값은 바뀔 수 있으니 read 로 다시 읽는다.
+     * */
+    public NavigableMap<Long, Entry> index() {
+        return index;
+    }
+
+    public Post read(long id) {
+        lock.readLock().lock();
+        try {
+            Entry entry = index.get(id);
+            if (entry == null) {
+                return null;
+            }
+
+            ByteBuffer record = segments.get(entry.segment).slice(entry.offset + HEADER + KEY, entry.length - KEY);
+            record.getLong(); // version, views 는 index 에 있는 값이 최신이다.
+            record.getLong();
+            String title = readString(record);
+            String content = readString(record);
+            return Post.of(id, title, content, entry.version, entry.views);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long nextId() {
+        lock.writeLock().lock();
+        try {
+            return ++maxId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * id 가 이미 있으면 version 을 올리고 조회수는 그대로 둔다. 새로 쓴 version 을 돌려준다.
+     * */
+    public long put(long id, String title, String content) {
+        lock.writeLock().lock();
+        try {
+            Entry current = index.get(id);
+            long version = current == null ? 0 : current.version + 1;
+            appendPut(id, title, content, version, current == null ? 0 : current.views);
+            return version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * expectedVersion 이 있으면 version 이 같을 때만 바꾼다. null 인 필드는 그대로 둔다.
+     * */
+    public boolean update(long id, Long expectedVersion, String title, String content) {
+        lock.writeLock().lock();
+        try {
+            Entry current = index.get(id);
+            if (current == null || (expectedVersion != null && expectedVersion != current.version)) {
+                return false;
+            }
+
+            Post post = read(id);
+            appendPut(id, title != null ? title : post.getTitle(), content != null ? content : post.getContent(),
+                    current.version + 1, current.views);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addViews(Map<Long, Long> deltas) {
+        lock.writeLock().lock();
+        try {
+            deltas.forEach((id, delta) -> {
+                Entry current = index.get(id);
+                if (current != null) {
+                    appendViews(id, current, current.views + delta);
+                }
+            });
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean delete(long id) {
+        lock.writeLock().lock();
+        try {
+            if (!index.containsKey(id)) {
+                return false;
+            }
+            append(DELETE, id, 0);
+            forget(index.remove(id));
+            sync();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void deleteAll(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                if (index.containsKey(id)) {
+                    append(DELETE, id, 0);
+                    forget(index.remove(id));
+                }
+            }
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 살아있는 레코드가 threshold 비율보다 적은, 다 찬 세그먼트를 다시 쓴다.
+     * 살아있는 글은 최신 version 과 조회수로 새로 쓰고, 지난 PUT 과 VIEWS 는 버린다.
+     * PUT 이 다른 세그먼트에 있는 글의 마지막 VIEWS 는 조회수만 다시 쓴다.
+     * DELETE 는 더 오래된 세그먼트가 남아있으면 함께 옮긴다. 없으면 지울 글이 없으므로 버린다.
+     * 지운 세그먼트 수를 돌려준다.
+     * */
+    public int compact(double threshold) {
+        int removed = 0;
+        for (Integer number : sealedSegments()) {
+            lock.writeLock().lock();
+            try {
+                Segment segment = segments.get(number);
+                if (segment == null || segment.live >= segment.position * threshold) {
+                    continue;
+                }
+                rewrite(segment);
+                removed++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return removed;
+    }
+
+    public int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+            segments.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Integer> sealedSegments() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(segments.headMap(active.number, false).keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rewrite(Segment segment) {
+        boolean olderExists = segments.firstKey() < segment.number;
+
+        for (int offset = 0; offset < segment.position; ) {
+            int length = segment.buffer.getInt(offset + 4);
+            ByteBuffer record = segment.slice(offset + HEADER, length);
+            byte type = record.get();
+            long id = record.getLong();
+
+            Entry entry = index.get(id);
+            if (type == PUT && entry != null && entry.segment == segment.number && entry.offset == offset) {
+                Post post = read(id);
+                appendPut(id, post.getTitle(), post.getContent(), entry.version, entry.views);
+            } else if (type == VIEWS && entry != null && entry.viewsSegment == segment.number && entry.viewsOffset == offset) {
+                appendViews(id, entry, entry.views);
+            } else if (type == DELETE && olderExists && entry == null) {
+                append(DELETE, id, 0);
+            }
+            offset += HEADER + length;
+        }
+        // 지운 글의 id 를 다시 쓰지 않도록 지금까지의 최대 id 를 남긴다.
+        append(RESERVE, maxId, 0);
+        sync();
+
+        segments.remove(segment.number);
+        try {
+            segment.channel.close();
+            Files.delete(segment.path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("compacted segment {}: {} of {} bytes were live", segment.number, segment.live, segment.position);
+    }
+
+    private void appendPut(long id, String title, String content, long version, long views) {
+        byte[] titleBytes = bytes(title);
+        byte[] contentBytes = bytes(content);
+        int bodyLength = 8 + 8 + 4 + (titleBytes == null ? 0 : titleBytes.length) + 4 + (contentBytes == null ? 0 : contentBytes.length);
+
+        ByteBuffer body = append(PUT, id, bodyLength);
+        body.putLong(version);
+        body.putLong(views);
+        putBytes(body, titleBytes);
+        putBytes(body, contentBytes);
+
+        Entry entry = new Entry(active.number, active.position - HEADER - KEY - bodyLength, KEY + bodyLength, version, views);
+        forget(index.put(id, entry));
+        active.live += HEADER + entry.length;
+        maxId = Math.max(maxId, id);
+        sync();
+    }
+
+    private void appendViews(long id, Entry current, long views) {
+        append(VIEWS, id, 8).putLong(views);
+
+        index.put(id, current.withViews(views, active.number, active.position - VIEWS_RECORD));
+        forgetViews(current);
+        active.live += VIEWS_RECORD;
+    }
+
+    /**
+     * 헤더와 키를 쓰고 본문을 채울 버퍼를 돌려준다. crc 는 본문을 다 채운 뒤 다음 append 나 sync 에서 쓴다.
+     * */
+    private ByteBuffer append(byte type, long id, int bodyLength) {
+        sealPending();
+
+        int length = KEY + bodyLength;
+        if (HEADER + length > segmentSize) {
+            throw new IllegalArgumentException("record of " + length + " bytes does not fit in a segment of " + segmentSize);
+        }
+        if (active.position + HEADER + length > active.size) {
+            active = openSegment(active.number + 1);
+        }
+
+        int offset = active.position;
+        ByteBuffer record = active.slice(offset + HEADER, length);
+        record.put(type);
+        record.putLong(id);
+        active.position += HEADER + length;
+        active.pendingOffset = offset;
+        active.pendingLength = length;
+        return record;
+    }
+
+    /**
+     * 마지막 레코드의 crc 와 length 를 쓴다. length 를 맨 나중에 쓰므로 중간에 죽으면 레코드가 없는 것처럼 보인다.
+     * */
+    private void sealPending() {
+        if (active == null || active.pendingOffset < 0) {
+            return;
+        }
+        int offset = active.pendingOffset;
+        int length = active.pendingLength;
+
+        CRC32 crc = new CRC32();
+        crc.update(active.slice(offset + HEADER, length));
+        active.buffer.putInt(offset, (int) crc.getValue());
+        active.buffer.putInt(offset + 4, length);
+        active.pendingOffset = -1;
+    }
+
+    private void sync() {
+        sealPending();
+        if (fsync) {
+            active.buffer.force();
+        }
+    }
+
+    private void forget(Entry replaced) {
+        if (replaced != null) {
+            Segment segment = segments.get(replaced.segment);
+            if (segment != null) {
+                segment.live -= HEADER + replaced.length;
+            }
+            forgetViews(replaced);
+        }
+    }
+
+    private void forgetViews(Entry replaced) {
+        if (replaced.viewsSegment != 0) {
+            Segment segment = segments.get(replaced.viewsSegment);
+            if (segment != null) {
+                segment.live -= VIEWS_RECORD;
+            }
+        }
+    }
+
+    private void recover(Path path) {
+        String name = path.getFileName().toString();
+        int number = Integer.parseInt(name.substring("segment-".length(), name.length() - ".log".length()));
+        Segment segment = openSegment(number);
+
+        int offset = 0;
+        while (offset + HEADER <= segment.size) {
+            int checksum = segment.buffer.getInt(offset);
+            int length = segment.buffer.getInt(offset + 4);
+            if (checksum == 0 && length == 0) {
+                break;
+            }
+            if (length < KEY || offset + HEADER + length > segment.size || !valid(segment, offset, length, checksum)) {
+                log.warn("segment {} is broken at {}, dropping the rest", number, offset);
+                for (int i = offset; i < segment.size; i++) {
+                    segment.buffer.put(i, (byte) 0);
+                }
+                break;
+            }
+
+            replay(segment, offset, length);
+            offset += HEADER + length;
+        }
+        segment.position = offset;
+    }
+
+    private boolean valid(Segment segment, int offset, int length, int checksum) {
+        CRC32 crc = new CRC32();
+        crc.update(segment.slice(offset + HEADER, length));
+        return (int) crc.getValue() == checksum;
+    }
+
+    private void replay(Segment segment, int offset, int length) {
+        ByteBuffer record = segment.slice(offset + HEADER, length);
+        byte type = record.get();
+        long id = record.getLong();
+        maxId = Math.max(maxId, id);
+
+        switch (type) {
+            case PUT:
+                long version = record.getLong();
+                long views = record.getLong();
+                forget(index.put(id, new Entry(segment.number, offset, length, version, views)));
+                segment.live += HEADER + length;
+                break;
+            case DELETE:
+                forget(index.remove(id));
+                break;
+            case VIEWS:
+                Entry current = index.get(id);
+                if (current != null) {
+                    index.put(id, current.withViews(record.getLong(), segment.number, offset));
+                    forgetViews(current);
+                    segment.live += HEADER + length;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private Segment openSegment(int number) {
+        Path path = directory.resolve(String.format("segment-%08d.log", number));
+        try {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // segmentSize 를 바꿔도 이미 있는 세그먼트는 원래 크기대로 읽는다.
+            int size = (int) Math.max(channel.size(), segmentSize);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            Segment segment = new Segment(number, path, channel, buffer, size);
+            segments.put(number, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 글 하나의 마지막 PUT 레코드 위치와 그 뒤에 바뀐 version, 조회수
+     * 조회수가 PUT 뒤의 VIEWS 에 있으면 그 위치도 둔다. 세그먼트 번호는 1 부터라 0 이면 없다.
+     * */
+    public static final class Entry {
+
+        private final int segment;
+        private final int offset;
+        private final int length;
+        private final long version;
+        private final long views;
+        private final int viewsSegment;
+        private final int viewsOffset;
+
+        private Entry(int segment, int offset, int length, long version, long views) {
+            this(segment, offset, length, version, views, 0, -1);
+        }
+
+        private Entry(int segment, int offset, int length, long version, long views, int viewsSegment, int viewsOffset) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.version = version;
+            this.views = views;
+            this.viewsSegment = viewsSegment;
+            this.viewsOffset = viewsOffset;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        private Entry withViews(long views, int viewsSegment, int viewsOffset) {
+            return new Entry(segment, offset, length, version, views, viewsSegment, viewsOffset);
+        }
+    }
+
+    private static final class Segment {
+
+        private final int number;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int size;
+        private int position;
+        private long live;
+        private int pendingOffset = -1;
+        private int pendingLength;
+
+        private Segment(int number, Path path, FileChannel channel, MappedByteBuffer buffer, int size) {
+            this.number = number;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.size = size;
+        }
+
+        private ByteBuffer slice(int offset, int length) {
+            ByteBuffer slice = buffer.duplicate();
+            slice.position(offset);
+            slice.limit(offset + length);
+            return slice.slice();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.hjlog.hjlog.repository.shard;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+
+/**
+ * 샤드마다 같은 순서로 정렬된 결과를 힙으로 하나씩 꺼내서 합친다.
+ * 옮기는 중이라 같은 id 가 두 샤드에 있으면 하나만 남긴다.
+ * */
+final class KWayMerge<T> implements Iterator<T> {
+
+    private final PriorityQueue<Head<T>> heads;
+    private final ToLongFunction<T> id;
+
+    private T next;
+    private boolean emitted;
+    private long lastId;
+
+    private KWayMerge(List<? extends Iterator<T>> sources, Comparator<T> order, ToLongFunction<T> id) {
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> order.compare(a.value, b.value));
+        this.id = id;
+        for (Iterator<T> source : sources) {
+            if (source.hasNext()) {
+                heads.add(new Head<>(source.next(), source));
+            }
+        }
+    }
+
+    static <T> Iterator<T> merge(List<? extends Iterator<T>> sources, Comparator<T> order, ToLongFunction<T> id) {
+        return new KWayMerge<>(sources, order, id);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && !heads.isEmpty()) {
+            Head<T> head = heads.poll();
+            T value = head.value;
+            if (head.source.hasNext()) {
+                heads.add(new Head<>(head.source.next(), head.source));
+            }
+
+            long valueId = id.applyAsLong(value);
+            if (!emitted || valueId != lastId) {
+                next = value;
+                lastId = valueId;
+                emitted = true;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T value = next;
+        next = null;
+        return value;
+    }
+
+    private static class Head<T> {
+
+        private final T value;
+        private final Iterator<T> source;
+
+        private Head(T value, Iterator<T> source) {
+            this.value = value;
+            this.source = source;
+        }
+    }
+}
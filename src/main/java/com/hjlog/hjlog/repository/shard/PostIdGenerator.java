@@ -0,0 +1,52 @@
+package com.hjlog.hjlog.repository.shard;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 샤드마다 따로 IDENTITY 를 쓰면 id 가 겹치므로 애플리케이션에서 만든다.
+ * [2022-01-01 부터의 밀리초 41비트][worker 4비트][순번 8비트] = 53비트라서 JavaScript 숫자로도 정확히 읽힌다.
+ * 한 worker 안에서는 늘어나기만 하므로 id 역순이 곧 최신순이다.
+ * */
+public class PostIdGenerator {
+
+    static final long EPOCH = 1640995200000L;
+    static final int WORKER_BITS = 4;
+    static final int SEQUENCE_BITS = 8;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long worker;
+    private final LongSupplier clock;
+
+    private long lastMillis = -1;
+    private long sequence;
+
+    public PostIdGenerator(int worker) {
+        this(worker, System::currentTimeMillis);
+    }
+
+    PostIdGenerator(int worker, LongSupplier clock) {
+        if (worker < 0 || worker >= 1 << WORKER_BITS) {
+            throw new IllegalArgumentException("worker-id must be between 0 and " + ((1 << WORKER_BITS) - 1));
+        }
+        this.worker = worker;
+        this.clock = clock;
+    }
+
+    public synchronized long next() {
+        // 시계가 뒤로 가도 id 는 줄어들지 않는다.
+        long millis = Math.max(clock.getAsLong() - EPOCH, lastMillis);
+        if (millis == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // 이번 밀리초의 순번을 다 썼으면 다음 밀리초 것을 당겨 쓴다.
+                millis++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = millis;
+
+        return (millis << (WORKER_BITS + SEQUENCE_BITS)) | (worker << SEQUENCE_BITS) | sequence;
+    }
+}
@@ -0,0 +1,143 @@
+package com.hjlog.hjlog.repository.shard;
+
+import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.response.ShardRebalanceResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.hjlog.hjlog.repository.shard.ShardedPostRepository.INSERT;
+import static com.hjlog.hjlog.repository.shard.ShardedPostRepository.POST;
+import static com.hjlog.hjlog.repository.shard.ShardedPostRepository.SELECT;
+
+/**
+ * 샤드 수를 바꾼 뒤 모든 샤드를 id 순으로 훑어서 자리가 바뀐 글을 옮긴다.
+ * 새 자리에 없을 때만 쓰고 원래 샤드에서 지운다. 새 자리에 사본이 생기면 수정과 조회수는 사본으로 가므로
+ * 이미 있는 사본은 덮어쓰지 않는다. 중간에 멈춘 뒤 다시 돌려도 그동안 사본에 쌓인 쓰기를 잃지 않는다.
+ * 사본을 쓰기 직전에 원래 샤드로 간 쓰기는 version 이나 조회수가 달라서 원래 샤드에서 지워지지 않으므로
+ * 다시 읽어서 사본에 더한다. 옮기는 동안 지워진 글은 새 자리에 쓴 사본도 지운다.
+ * */
+@Slf4j
+public class ShardRebalancer {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_RETRY = 3;
+
+    private final ShardedPostRepository repository;
+
+    public ShardRebalancer(ShardedPostRepository repository) {
+        this.repository = repository;
+    }
+
+    public synchronized ShardRebalanceResponse rebalance() {
+        long start = System.currentTimeMillis();
+        List<JdbcTemplate> shards = repository.getShards();
+        ShardRouter router = repository.getRouter();
+
+        long scanned = 0;
+        long moved = 0;
+        for (int source = 0; source < shards.size(); source++) {
+            long lastId = Long.MIN_VALUE;
+            while (true) {
+                List<Post> batch = shards.get(source).query(SELECT + " where id > ? order by id limit ?",
+                        POST, lastId, BATCH_SIZE);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+                scanned += batch.size();
+
+                int from = source;
+                Map<Integer, List<Post>> misplaced = batch.stream()
+                        .filter(post -> router.shardOf(post.getId()) != from)
+                        .collect(Collectors.groupingBy(post -> router.shardOf(post.getId())));
+                for (Map.Entry<Integer, List<Post>> move : misplaced.entrySet()) {
+                    moved += move(shards.get(source), shards.get(move.getKey()), move.getValue());
+                }
+            }
+        }
+
+        log.info("rebalanced {} shards: scanned {}, moved {} in {}ms",
+                router.getCount(), scanned, moved, System.currentTimeMillis() - start);
+        return new ShardRebalanceResponse(router.getCount(), scanned, moved);
+    }
+
+    private long move(JdbcTemplate source, JdbcTemplate target, List<Post> posts) {
+        long moved = 0;
+
+        // 새 자리에 이미 있는 글은 멈췄던 rebalance 가 옮기다 만 글이다.
+        // 그 뒤의 수정과 조회수는 새 자리에만 쌓였으므로 덮어쓰지 않고 원래 샤드의 것만 지운다.
+        Set<Long> copied = new HashSet<>(target.queryForList("select id from post where id in ("
+                + posts.stream().map(post -> "?").collect(Collectors.joining(", ")) + ")",
+                Long.class, posts.stream().map(Post::getId).toArray()));
+        List<Post> absent = new ArrayList<>();
+        for (Post post : posts) {
+            if (copied.contains(post.getId())) {
+                moved += source.update("delete from post where id = ?", post.getId());
+            } else {
+                absent.add(post);
+            }
+        }
+        target.batchUpdate(INSERT, args(absent, post -> new Object[]{
+                post.getId(), post.getTitle(), post.getContent(), post.getVersion(), post.getViews()}));
+
+        posts = absent;
+        for (int attempt = 0; !posts.isEmpty() && attempt < MAX_RETRY; attempt++) {
+            int[] deleted = source.batchUpdate("delete from post where id = ? and version = ? and views = ?",
+                    args(posts, post -> new Object[]{post.getId(), post.getVersion(), post.getViews()}));
+
+            List<Post> changed = new ArrayList<>();
+            for (int i = 0; i < posts.size(); i++) {
+                Post post = posts.get(i);
+                if (deleted[i] > 0) {
+                    moved++;
+                    continue;
+                }
+
+                Optional<Post> current = source.query(SELECT + " where id = ?", POST, post.getId()).stream().findFirst();
+                if (current.isEmpty()) {
+                    // 새 자리에 쓰기 전에 들어온 삭제는 원래 샤드에서 지웠으므로 방금 쓴 사본을 되돌린다.
+                    target.update("delete from post where id = ? and version = ?", post.getId(), post.getVersion());
+                    continue;
+                }
+                catchUp(target, post, current.get());
+                changed.add(current.get());
+            }
+            posts = changed;
+        }
+
+        if (!posts.isEmpty()) {
+            log.warn("{} posts kept changing during rebalance, run it again", posts.size());
+        }
+        return moved;
+    }
+
+    /**
+     * 사본을 쓰기 직전에 원래 샤드로 간 쓰기를 사본에 더한다. 사본이 그 뒤에 받은 쓰기는 덮지 않는다.
+     * */
+    private static void catchUp(JdbcTemplate target, Post copied, Post current) {
+        long views = current.getViews() - copied.getViews();
+        if (views != 0) {
+            target.update("update post set views = views + ? where id = ?", views, current.getId());
+        }
+        if (!current.getVersion().equals(copied.getVersion())) {
+            int edited = target.update("update post set title = ?, content = ?, version = ? where id = ? and version = ?",
+                    current.getTitle(), current.getContent(), current.getVersion(), current.getId(), copied.getVersion());
+            if (edited == 0) {
+                log.warn("post {} was edited on both shards during rebalance, keeping the newer shard's edit", current.getId());
+            }
+        }
+    }
+
+    private static List<Object[]> args(List<Post> posts, Function<Post, Object[]> mapper) {
+        return posts.stream().map(mapper).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,52 @@
+package com.hjlog.hjlog.repository.shard;
+
+/**
+ * id 로 샤드를 고른다. jump consistent hash 라서 샤드를 n 개에서 n + 1 개로 늘리면 1 / (n + 1) 만 자리를 옮긴다.
+ * 샤드 수를 바꾼 뒤 rebalance 가 끝날 때까지는 previousCount 로 예전 자리도 알려준다.
+ * */
+public class ShardRouter {
+
+    private final int count;
+    private final int previousCount;
+
+    public ShardRouter(int count, int previousCount) {
+        if (count < 1) {
+            throw new IllegalArgumentException("shard count must be positive");
+        }
+        this.count = count;
+        this.previousCount = previousCount;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int shardOf(long id) {
+        return jump(id, count);
+    }
+
+    /**
+     * 옮기는 중일 수 있는 예전 자리. 없거나 지금과 같으면 -1
+     * */
+    public int previousShardOf(long id) {
+        if (previousCount < 1) {
+            return -1;
+        }
+        int previous = jump(id, previousCount);
+        return previous == shardOf(id) ? -1 : previous;
+    }
+
+    static int jump(long id, int buckets) {
+        long key = id * 0xBF58476D1CE4E5B9L;
+        key ^= key >>> 31;
+
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
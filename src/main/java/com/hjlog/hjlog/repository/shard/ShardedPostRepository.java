@@ -0,0 +1,352 @@
+package com.hjlog.hjlog.repository.shard;
+
+import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.domain.PostEditor;
+import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.repository.PostVersion;
+import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.PostExportResponse;
+import com.hjlog.hjlog.response.PostSummaryResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.hjlog.hjlog.response.PostSummaryResponse.EXCERPT_LENGTH;
+
+/**
+ * 글을 id 해시로 여러 DB 에 나눠 담는다.
+ * id 하나로 찾는 조회, 수정, 삭제는 한 샤드에만 가고, 목록은 모든 샤드에 동시에 물어서 id 역순으로 합친다.
+ * 샤드 사이의 트랜잭션은 없다. 쓰기 한 번은 한 샤드 안에서 끝난다.
+ * 읽기는 설정된 샤드를 모두 본다. 샤드 수를 줄이는 중이면 아직 비우지 않은 샤드의 글도 보인다.
+ * */
+public class ShardedPostRepository implements PostRepository, Closeable {
+
+    static final String SCHEMA = "create table if not exists post ("
+            + "id bigint primary key, "
+            + "title varchar(255), "
+            + "content clob, "
+            + "version bigint, "
+            + "views bigint not null default 0)";
+
+    static final String SELECT = "select id, title, content, version, views from post";
+    static final String INSERT = "insert into post (id, title, content, version, views) values (?, ?, ?, ?, ?)";
+    private static final String ADD_VIEWS = "update post set views = views + ? where id = ?";
+
+    static final RowMapper<Post> POST = (rs, i) -> Post.of(rs.getLong("id"), rs.getString("title"),
+            rs.getString("content"), rs.getLong("version"), rs.getLong("views"));
+
+    private final List<JdbcTemplate> shards;
+    private final ShardRouter router;
+    private final PostIdGenerator idGenerator;
+    private final ExecutorService scatter;
+
+    public ShardedPostRepository(List<DataSource> shards, ShardRouter router, PostIdGenerator idGenerator, int fetchSize) {
+        if (shards.size() < router.getCount()) {
+            throw new IllegalArgumentException("shard count " + router.getCount() + " exceeds configured shards " + shards.size());
+        }
+        this.shards = shards.stream()
+                .map(dataSource -> {
+                    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                    jdbcTemplate.setFetchSize(fetchSize);
+                    return jdbcTemplate;
+                })
+                .collect(Collectors.toList());
+        this.router = router;
+        this.idGenerator = idGenerator;
+        this.scatter = Executors.newFixedThreadPool(shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "post-shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void createSchema() {
+        shards.forEach(shard -> shard.execute(SCHEMA));
+    }
+
+    /**
+     * rebalance 에서 쓴다. 샤드 수를 줄이는 중이면 router 의 샤드 수보다 많다.
+     * */
+    List<JdbcTemplate> getShards() {
+        return shards;
+    }
+
+    ShardRouter getRouter() {
+        return router;
+    }
+
+    @Override
+    public <S extends Post> S save(S post) {
+        if (post.getId() != null) {
+            int updated = onShardOf(post.getId(), shard -> shard.update(
+                    "update post set title = ?, content = ?, version = version + 1 where id = ?",
+                    post.getTitle(), post.getContent(), post.getId()));
+            if (updated > 0) {
+                post.assign(post.getId(), post.getVersion() == null ? null : post.getVersion() + 1);
+                return post;
+            }
+        }
+
+        saveAll(List.of(post));
+        return post;
+    }
+
+    @Override
+    public <S extends Post> List<S> saveAll(Iterable<S> posts) {
+        List<S> saved = new ArrayList<>();
+        Map<Integer, List<Object[]>> rows = new HashMap<>();
+        for (S post : posts) {
+            long id = post.getId() != null ? post.getId() : idGenerator.next();
+            post.assign(id, 0L);
+            rows.computeIfAbsent(router.shardOf(id), shard -> new ArrayList<>())
+                    .add(new Object[]{id, post.getTitle(), post.getContent(), 0L, post.getViews()});
+            saved.add(post);
+        }
+
+        rows.forEach((shard, args) -> shards.get(shard).batchUpdate(INSERT, args));
+        return saved;
+    }
+
+    @Override
+    public void insertAll(List<Post> posts) {
+        saveAll(posts);
+    }
+
+    @Override
+    public Optional<Post> findById(Long id) {
+        return Optional.ofNullable(onShardOf(id, shard -> shard.query(SELECT + " where id = ?", POST, id)
+                .stream()
+                .findFirst()
+                .orElse(null)));
+    }
+
+    @Override
+    public List<Post> findAll() {
+        List<Iterator<Post>> sorted = scatter(shard -> shard.query(SELECT + " order by id", POST).iterator());
+        List<Post> posts = new ArrayList<>();
+        KWayMerge.merge(sorted, Comparator.comparingLong(Post::getId), Post::getId).forEachRemaining(posts::add);
+        return posts;
+    }
+
+    @Override
+    public long count() {
+        return scatter(shard -> shard.queryForObject("select count(*) from post", Long.class)).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    @Override
+    public void deleteAll() {
+        scatter(shard -> shard.update("delete from post"));
+    }
+
+    @Override
+    public List<PostSummaryResponse> getList(PostSearch postSearch) {
+        return page(postSearch, "select id, title, substring(content, 1, " + EXCERPT_LENGTH + ") as content, version from post",
+                (rs, i) -> new PostSummaryResponse(rs.getLong("id"), rs.getString("title"),
+                        rs.getString("content"), rs.getLong("version")),
+                PostSummaryResponse::getId);
+    }
+
+    @Override
+    public List<PostVersion> getListVersions(PostSearch postSearch) {
+        return page(postSearch, "select id, version from post",
+                (rs, i) -> new PostVersion(rs.getLong("id"), rs.getLong("version")),
+                PostVersion::getId);
+    }
+
+    @Override
+    public Long getVersion(Long id) {
+        return onShardOf(id, shard -> shard.queryForList("select coalesce(version, 0) from post where id = ?", Long.class, id)
+                .stream()
+                .findFirst()
+                .orElse(null));
+    }
+
+    @Override
+    public List<Post> getAll(Collection<Long> ids) {
+        Map<Integer, List<Long>> byShard = ids.stream()
+                .collect(Collectors.groupingBy(router::shardOf));
+        List<Post> found = scatter(byShard, this::findIn);
+
+        // 옮기는 중인 글은 예전 자리에서 한 번 더 찾는다.
+        List<Long> missed = new ArrayList<>(ids);
+        found.forEach(post -> missed.remove(post.getId()));
+        Map<Integer, List<Long>> byPreviousShard = missed.stream()
+                .filter(id -> router.previousShardOf(id) >= 0)
+                .collect(Collectors.groupingBy(router::previousShardOf));
+        if (!byPreviousShard.isEmpty()) {
+            found.addAll(scatter(byPreviousShard, this::findIn));
+        }
+        return found;
+    }
+
+    @Override
+    public long update(Long id, Long expectedVersion, PostEditor postEditor) {
+        StringBuilder sql = new StringBuilder("update post set version = version + 1");
+        List<Object> args = new ArrayList<>();
+        if (postEditor.getTitle() != null) {
+            sql.append(", title = ?");
+            args.add(postEditor.getTitle());
+        }
+        if (postEditor.getContent() != null) {
+            sql.append(", content = ?");
+            args.add(postEditor.getContent());
+        }
+        sql.append(" where id = ?");
+        args.add(id);
+        if (expectedVersion != null) {
+            sql.append(" and version = ?");
+            args.add(expectedVersion);
+        }
+
+        return onShardOf(id, shard -> shard.update(sql.toString(), args.toArray()));
+    }
+
+    @Override
+    public void addViews(Map<Long, Long> deltas) {
+        Map<Integer, List<Object[]>> byShard = new HashMap<>();
+        deltas.forEach((id, delta) -> byShard.computeIfAbsent(router.shardOf(id), shard -> new ArrayList<>())
+                .add(new Object[]{delta, id}));
+
+        // 옮기는 중인 글은 예전 자리에서 한 번 더 더한다.
+        Map<Integer, List<Object[]>> byPreviousShard = new HashMap<>();
+        byShard.forEach((shard, args) -> {
+            int[] updated = shards.get(shard).batchUpdate(ADD_VIEWS, args);
+            for (int i = 0; i < updated.length; i++) {
+                int previous = router.previousShardOf((Long) args.get(i)[1]);
+                if (updated[i] == 0 && previous >= 0) {
+                    byPreviousShard.computeIfAbsent(previous, key -> new ArrayList<>()).add(args.get(i));
+                }
+            }
+        });
+        byPreviousShard.forEach((shard, args) -> shards.get(shard).batchUpdate(ADD_VIEWS, args));
+    }
+
+    /**
+     * 옮기는 중이면 양쪽에 다 있을 수 있으므로 예전 자리에서도 지운다. 남겨두면 지운 글이 예전 자리에서 다시 보인다.
+     * */
+    @Override
+    public long remove(Long id) {
+        long removed = shards.get(router.shardOf(id)).update("delete from post where id = ?", id);
+        int previous = router.previousShardOf(id);
+        if (previous >= 0) {
+            removed += shards.get(previous).update("delete from post where id = ?", id);
+        }
+        return removed;
+    }
+
+    @Override
+    public Stream<PostExportResponse> streamAll(Long sinceId) {
+        List<Stream<PostExportResponse>> streams = new ArrayList<>();
+        for (JdbcTemplate shard : shards) {
+            streams.add(shard.queryForStream("select id, title, content from post where id > ? order by id",
+                    (rs, i) -> new PostExportResponse(rs.getLong("id"), rs.getString("title"), rs.getString("content")),
+                    sinceId != null ? sinceId : Long.MIN_VALUE));
+        }
+
+        Iterator<PostExportResponse> merged = KWayMerge.merge(
+                streams.stream().map(Stream::iterator).collect(Collectors.toList()),
+                Comparator.comparingLong(PostExportResponse::getId),
+                PostExportResponse::getId);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> streams.forEach(Stream::close));
+    }
+
+    @Override
+    public void close() {
+        scatter.shutdownNow();
+    }
+
+    /**
+     * 샤드마다 offset + limit 개씩 받아서 합친 뒤 offset 만큼 건너뛴다.
+     * */
+    private <T> List<T> page(PostSearch postSearch, String select, RowMapper<T> mapper, ToLongFunction<T> id) {
+        Long lastId = postSearch.getLastId();
+        long perShard = postSearch.getOffset() + postSearch.getLimit();
+        String sql = select + (lastId != null ? " where id < ?" : "") + " order by id desc limit ?";
+        Object[] args = lastId != null ? new Object[]{lastId, perShard} : new Object[]{perShard};
+
+        List<Iterator<T>> sorted = scatter(shard -> shard.query(sql, mapper, args).iterator());
+        Iterator<T> merged = KWayMerge.merge(sorted, Comparator.comparingLong(id).reversed(), id);
+
+        List<T> page = new ArrayList<>(postSearch.getLimit());
+        for (long skipped = 0; merged.hasNext() && page.size() < postSearch.getLimit(); ) {
+            T value = merged.next();
+            if (skipped < postSearch.getOffset()) {
+                skipped++;
+            } else {
+                page.add(value);
+            }
+        }
+        return page;
+    }
+
+    private List<Post> findIn(JdbcTemplate shard, List<Long> ids) {
+        String in = ids.stream().map(id -> "?").collect(Collectors.joining(", "));
+        return shard.query(SELECT + " where id in (" + in + ")", POST, ids.toArray());
+    }
+
+    /**
+     * 지금 자리에서 못 찾으면(null 이나 0) 옮기는 중인 예전 자리에서 한 번 더 한다.
+     * */
+    private <T> T onShardOf(Long id, Function<JdbcTemplate, T> call) {
+        T result = call.apply(shards.get(router.shardOf(id)));
+        int previous = router.previousShardOf(id);
+        if (previous >= 0 && (result == null || Integer.valueOf(0).equals(result) || Long.valueOf(0).equals(result))) {
+            return call.apply(shards.get(previous));
+        }
+        return result;
+    }
+
+    private <T> List<T> scatter(Function<JdbcTemplate, T> call) {
+        List<CompletableFuture<T>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> call.apply(shard), scatter))
+                .collect(Collectors.toList());
+        return join(futures);
+    }
+
+    private <T> List<T> scatter(Map<Integer, List<Long>> byShard, BiFunction<JdbcTemplate, List<Long>, List<T>> call) {
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>();
+        byShard.forEach((shard, ids) ->
+                futures.add(CompletableFuture.supplyAsync(() -> call.apply(shards.get(shard), ids), scatter)));
+        return join(futures).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+        try {
+            return futures.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
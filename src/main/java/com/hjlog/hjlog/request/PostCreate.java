@@ -1,6 +1,6 @@
 package com.hjlog.hjlog.request;
 
-import com.hjlog.hjlog.exception.InvalidRequest;
+import com.hjlog.hjlog.moderation.BannedWordMatcher;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -25,9 +25,10 @@ public class PostCreate {
         this.content = content;
     }
 
-    public void validate() {
-        if(title.contains("바보")) {
-            throw new InvalidRequest("title", "제목에 바보를 포함할 수 없습니다.");
-        }
+    /**
+     * 제목과 내용에 금지어가 있으면 들어간 필드를 모두 담아서 던진다.
+     * */
+    public void validate(BannedWordMatcher bannedWords) {
+        bannedWords.validate(title, content);
     }
 }
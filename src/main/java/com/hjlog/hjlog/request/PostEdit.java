@@ -1,5 +1,6 @@
 package com.hjlog.hjlog.request;
 
+import com.hjlog.hjlog.moderation.BannedWordMatcher;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -23,4 +24,11 @@ public class PostEdit {
         this.title = title;
         this.content = content;
     }
+
+    /**
+     * 제목과 내용에 금지어가 있으면 들어간 필드를 모두 담아서 던진다.
+     * */
+    public void validate(BannedWordMatcher bannedWords) {
+        bannedWords.validate(title, content);
+    }
 }
@@ -1,12 +1,20 @@
 package com.hjlog.hjlog.request;
 
+import com.hjlog.hjlog.exception.InvalidRequest;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
 @Getter
 @Setter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class PostSearch {
 
     private static final int MAX_SIZE = 2000;
@@ -17,7 +25,39 @@ public class PostSearch {
     @Builder.Default
     private Integer size = 20;
 
+    // null 이면 offset 방식, 빈 문자열이면 cursor 방식의 첫 페이지
+    private String cursor;
+
     public long getOffset() {
+        if (isCursorMode()) {
+            return 0;
+        }
         return (long) (Math.max(1, page) - 1) * Math.min(size, MAX_SIZE);
     }
+
+    public int getLimit() {
+        return Math.min(size, MAX_SIZE);
+    }
+
+    public boolean isCursorMode() {
+        return cursor != null;
+    }
+
+    public Long getLastId() {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Long.parseLong(decoded);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequest("cursor", "잘못된 커서입니다.");
+        }
+    }
+
+    public static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
 }
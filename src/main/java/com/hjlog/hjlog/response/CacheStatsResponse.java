@@ -0,0 +1,26 @@
+package com.hjlog.hjlog.response;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.Getter;
+
+@Getter
+public class CacheStatsResponse {
+
+    private final long size;
+    private final long hitCount;
+    private final long missCount;
+    private final double hitRate;
+    private final long loadCount;
+    private final long evictionCount;
+    private final long evictionWeight;
+
+    public CacheStatsResponse(long size, CacheStats stats) {
+        this.size = size;
+        this.hitCount = stats.hitCount();
+        this.missCount = stats.missCount();
+        this.hitRate = stats.hitRate();
+        this.loadCount = stats.loadCount();
+        this.evictionCount = stats.evictionCount();
+        this.evictionWeight = stats.evictionWeight();
+    }
+}
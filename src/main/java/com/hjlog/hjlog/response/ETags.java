@@ -0,0 +1,84 @@
+package com.hjlog.hjlog.response;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 글의 version 으로 만드는 ETag
+ * 단건은 "{id}-{version}", 목록은 (id, version) 나열의 md5 이다.
+ * 단건 조회 응답은 조회수가 요청마다 바뀌므로 weak ETag 로 준다.
+ * */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Long id, Long version) {
+        return "\"" + id + "-" + versionOf(version) + "\"";
+    }
+
+    /**
+     * views 는 ETag 에 들어가지 않는다. 제목과 내용이 같으면 조회수가 달라도 같은 글로 본다.
+     * */
+    public static String weak(Long id, Long version) {
+        return "W/" + of(id, version);
+    }
+
+    public static <T> String ofList(List<T> items, Function<T, Long> id, Function<T, Long> version) {
+        StringBuilder builder = new StringBuilder();
+        for (T item : items) {
+            builder.append(id.apply(item)).append(':').append(versionOf(version.apply(item))).append(',');
+        }
+
+        return "\"" + DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * If-None-Match 헤더 값에 etag 가 들어 있는지. If-None-Match 는 weak 비교라서 W/ 는 보지 않는다.
+     * */
+    public static boolean matches(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+
+        String opaque = stripWeak(etag);
+        for (String candidate : header.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || stripWeak(trimmed).equals(opaque)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * "{id}-{version}" 형태의 If-Match 값에서 version 을 꺼낸다. 다른 글의 ETag 이거나 형식이 다르면 null
+     * 단건 조회가 준 W/ 도 받는다. 수정 충돌은 조회수와 상관없이 version 으로만 판단한다.
+     * */
+    public static Long parseVersion(String etag, Long id) {
+        String value = stripWeak(etag.trim()).replace("\"", "");
+
+        String prefix = id + "-";
+        if (!value.startsWith(prefix)) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(value.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static long versionOf(Long version) {
+        return version == null ? 0 : version;
+    }
+}
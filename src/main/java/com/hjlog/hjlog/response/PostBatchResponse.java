@@ -0,0 +1,41 @@
+package com.hjlog.hjlog.response;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {
+ *     "accepted": 2,
+ *     "rejected": 1,
+ *     "errors": [
+ *         { "index": 1, "validation": { "title": "title을 입력해주세요." } }
+ *     ]
+ * }
+ * */
+@Getter
+public class PostBatchResponse {
+
+    private final int accepted;
+    private final int rejected;
+    private final List<ItemError> errors;
+
+    public PostBatchResponse(int accepted, List<ItemError> errors) {
+        this.accepted = accepted;
+        this.rejected = errors.size();
+        this.errors = errors;
+    }
+
+    @Getter
+    public static class ItemError {
+
+        private final long index;
+        private final Map<String, String> validation;
+
+        public ItemError(long index, Map<String, String> validation) {
+            this.index = index;
+            this.validation = validation;
+        }
+    }
+}
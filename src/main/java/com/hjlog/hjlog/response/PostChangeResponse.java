@@ -0,0 +1,23 @@
+package com.hjlog.hjlog.response;
+
+import com.hjlog.hjlog.event.PostChangedEvent;
+import lombok.Getter;
+
+/**
+ * GET /posts/changes 로 흘려보내는 변경 한 건. 내용은 담지 않으니 필요하면 postId 로 다시 조회한다.
+ * */
+@Getter
+public class PostChangeResponse {
+
+    private final long seq;
+    private final PostChangedEvent.Type type;
+    private final Long postId;
+    private final String title;
+
+    public PostChangeResponse(long seq, PostChangedEvent event) {
+        this.seq = seq;
+        this.type = event.getType();
+        this.postId = event.getPostId();
+        this.title = event.getTitle();
+    }
+}
@@ -0,0 +1,24 @@
+package com.hjlog.hjlog.response;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * {
+ *     "posts": [ ... ],
+ *     "nextCursor": "MTIz"
+ * }
+ * 마지막 페이지이면 nextCursor 는 null
+ * */
+@Getter
+public class PostCursorResponse {
+
+    private final List<PostSummaryResponse> posts;
+    private final String nextCursor;
+
+    public PostCursorResponse(List<PostSummaryResponse> posts, String nextCursor) {
+        this.posts = posts;
+        this.nextCursor = nextCursor;
+    }
+}
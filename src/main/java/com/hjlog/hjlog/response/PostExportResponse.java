@@ -0,0 +1,20 @@
+package com.hjlog.hjlog.response;
+
+import lombok.Getter;
+
+/**
+ * export 한 줄(NDJSON)에 해당하는 글 전체 내용
+ * */
+@Getter
+public class PostExportResponse {
+
+    private final Long id;
+    private final String title;
+    private final String content;
+
+    public PostExportResponse(Long id, String title, String content) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+    }
+}
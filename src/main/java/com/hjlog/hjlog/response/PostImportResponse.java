@@ -0,0 +1,51 @@
+package com.hjlog.hjlog.response;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {
+ *     "completed": true,
+ *     "accepted": 2,
+ *     "rejected": 1,
+ *     "lastCommittedLine": 3,
+ *     "rejections": [
+ *         { "line": 2, "validation": { "title": "title을 입력해주세요." } }
+ *     ]
+ * }
+ * 실패하면 lastCommittedLine + 1 부터 다시 import 하면 된다.
+ * */
+@Getter
+public class PostImportResponse {
+
+    private final boolean completed;
+    private final long accepted;
+    private final long rejected;
+    private final long lastCommittedLine;
+    private final String message;
+    private final List<Rejection> rejections;
+
+    public PostImportResponse(boolean completed, long accepted, long rejected, long lastCommittedLine,
+                              String message, List<Rejection> rejections) {
+        this.completed = completed;
+        this.accepted = accepted;
+        this.rejected = rejected;
+        this.lastCommittedLine = lastCommittedLine;
+        this.message = message;
+        this.rejections = rejections;
+    }
+
+    @Getter
+    public static class Rejection {
+
+        private final long line;
+        private final Map<String, String> validation;
+
+        public Rejection(long line, Map<String, String> validation) {
+            this.line = line;
+            this.validation = validation;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.hjlog.hjlog.response;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * {
+ *     "posts": [ { "id": 3, ... }, { "id": 1, ... } ],
+ *     "missing": [ 2 ]
+ * }
+ * posts 는 요청한 순서를 따르고, 없는 글의 id 는 missing 에 담는다.
+ * */
+@Getter
+public class PostLookupResponse {
+
+    private final List<PostResponse> posts;
+    private final List<Long> missing;
+
+    public PostLookupResponse(List<PostResponse> posts, List<Long> missing) {
+        this.posts = posts;
+        this.missing = missing;
+    }
+}
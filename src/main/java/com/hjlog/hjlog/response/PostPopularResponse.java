@@ -0,0 +1,31 @@
+package com.hjlog.hjlog.response;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * views 는 count-min sketch 추정치라서 실제보다 조금 클 수 있다.
+ * */
+@Getter
+public class PostPopularResponse {
+
+    private final String window;
+    private final List<Item> posts;
+
+    public PostPopularResponse(String window, List<Item> posts) {
+        this.window = window;
+        this.posts = posts;
+    }
+
+    @Getter
+    public static class Item {
+        private final Long id;
+        private final long views;
+
+        public Item(Long id, long views) {
+            this.id = id;
+            this.views = views;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.hjlog.hjlog.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.hjlog.hjlog.domain.Post;
 import lombok.Builder;
 import lombok.Getter;
@@ -11,16 +12,32 @@ public class PostResponse {
     private final String title;
     private final String content;
 
+    private final long views;
+
+    @JsonIgnore
+    private final Long version;
+
     public PostResponse(Post post) {
         this.id = post.getId();
         this.title = post.getTitle();
         this.content = post.getContent();
+        this.views = post.getViews();
+        this.version = post.getVersion();
     }
 
     @Builder
-    public PostResponse(Long id, String title, String content) {
+    public PostResponse(Long id, String title, String content, long views, Long version) {
         this.id = id;
         this.title = title.substring(0, Math.min(title.length(), 10));
         this.content = content;
+        this.views = views;
+        this.version = version;
+    }
+
+    /**
+     * 아직 DB 에 반영되지 않은 조회수를 더한 사본
+     * */
+    public PostResponse plusViews(long pendingViews) {
+        return pendingViews == 0 ? this : new PostResponse(id, title, content, views + pendingViews, version);
     }
 }
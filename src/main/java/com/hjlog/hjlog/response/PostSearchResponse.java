@@ -0,0 +1,39 @@
+package com.hjlog.hjlog.response;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * {
+ *     "total": 12,
+ *     "hits": [
+ *         { "id": 3, "title": "검색 엔진 만들기", "score": 4.21 }
+ *     ]
+ * }
+ * */
+@Getter
+public class PostSearchResponse {
+
+    private final long total;
+    private final List<Hit> hits;
+
+    public PostSearchResponse(long total, List<Hit> hits) {
+        this.total = total;
+        this.hits = hits;
+    }
+
+    @Getter
+    public static class Hit {
+
+        private final Long id;
+        private final String title;
+        private final double score;
+
+        public Hit(Long id, String title, double score) {
+            this.id = id;
+            this.title = title;
+            this.score = score;
+        }
+    }
+}
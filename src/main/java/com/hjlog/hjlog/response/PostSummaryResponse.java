@@ -0,0 +1,28 @@
+package com.hjlog.hjlog.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+/**
+ * 목록 조회용 응답
+ * content 는 본문 전체가 아니라 앞부분 EXCERPT_LENGTH 글자만 담는다.
+ * */
+@Getter
+public class PostSummaryResponse {
+
+    public static final int EXCERPT_LENGTH = 200;
+
+    private final Long id;
+    private final String title;
+    private final String content;
+
+    @JsonIgnore
+    private final Long version;
+
+    public PostSummaryResponse(Long id, String title, String content, Long version) {
+        this.id = id;
+        this.title = title;
+        this.content = content;
+        this.version = version;
+    }
+}
@@ -0,0 +1,39 @@
+package com.hjlog.hjlog.response;
+
+import lombok.Getter;
+
+/**
+ * write-behind 로 받은 글 작성 요청의 상태
+ * DURABLE 이 되면 커밋된 것이고 postId 로 조회할 수 있다.
+ * */
+@Getter
+public class PostWriteResponse {
+
+    public enum Status {
+        PENDING, DURABLE, FAILED
+    }
+
+    private final String trackingId;
+    private final Status status;
+    private final Long postId;
+    private final String message;
+
+    public PostWriteResponse(String trackingId, Status status, Long postId, String message) {
+        this.trackingId = trackingId;
+        this.status = status;
+        this.postId = postId;
+        this.message = message;
+    }
+
+    public static PostWriteResponse pending(String trackingId) {
+        return new PostWriteResponse(trackingId, Status.PENDING, null, null);
+    }
+
+    public static PostWriteResponse durable(String trackingId, Long postId) {
+        return new PostWriteResponse(trackingId, Status.DURABLE, postId, null);
+    }
+
+    public static PostWriteResponse failed(String trackingId, String message) {
+        return new PostWriteResponse(trackingId, Status.FAILED, null, message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.hjlog.hjlog.response;
+
+import lombok.Getter;
+
+@Getter
+public class ShardRebalanceResponse {
+
+    private final int shards;
+    private final long scanned;
+    private final long moved;
+
+    public ShardRebalanceResponse(int shards, long scanned, long moved) {
+        this.shards = shards;
+        this.scanned = scanned;
+        this.moved = moved;
+    }
+}
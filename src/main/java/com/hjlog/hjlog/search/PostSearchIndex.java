@@ -0,0 +1,263 @@
+package com.hjlog.hjlog.search;
+
+import com.hjlog.hjlog.datasource.PrimaryOnly;
+import com.hjlog.hjlog.event.PostChangedEvent;
+import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.response.PostExportResponse;
+import com.hjlog.hjlog.response.PostSearchResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * title, content 에 대한 메모리 역색인
+ * 시작할 때 전체 글로 만들고, 이후에는 PostChangedEvent 로 글 단위로 갱신한다.
+ * 점수는 BM25 로 매기고 제목에 나온 토큰은 TITLE_BOOST 배로 센다.
+ * */
+@Slf4j
+@Component
+public class PostSearchIndex implements SmartInitializingSingleton {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_BOOST = 2;
+
+    private static final Comparator<Map.Entry<Long, Double>> BY_SCORE = Map.Entry.<Long, Double>comparingByValue()
+            .thenComparing(Map.Entry.comparingByKey());
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    public PostSearchIndex(PostRepository postRepository, PlatformTransactionManager transactionManager) {
+        this.postRepository = postRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.currentTimeMillis();
+        // 복제본은 늦을 수 있어서 처음 한 번은 primary 에서 읽는다. 이후 변경은 이벤트로 따라간다.
+        try (PrimaryOnly ignored = PrimaryOnly.begin()) {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<PostExportResponse> posts = postRepository.streamAll(null)) {
+                    posts.forEach(post -> index(post.getId(), post.getTitle(), post.getContent()));
+                }
+            });
+        }
+        log.info("indexed {} posts in {}ms", size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.getType() == PostChangedEvent.Type.DELETED) {
+            remove(event.getPostId());
+        } else if (event.getType() == PostChangedEvent.Type.EDITED) {
+            edit(event.getPostId(), event.getTitle(), event.getContent());
+        } else {
+            index(event.getPostId(), event.getTitle(), event.getContent());
+        }
+    }
+
+    public void index(Long id, String title, String content) {
+        Map<String, Integer> contentFrequencies = frequencies(content);
+
+        lock.writeLock().lock();
+        try {
+            indexLocked(id, title, contentFrequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 수정 이벤트에서 null 인 필드는 바뀌지 않은 것이므로 색인에 있던 값을 그대로 쓴다.
+     * 내용은 원문을 두지 않으므로 색인된 빈도에서 제목 몫을 빼서 되살린다.
+     * */
+    public void edit(Long id, String title, String content) {
+        Map<String, Integer> contentFrequencies = content != null ? frequencies(content) : null;
+
+        lock.writeLock().lock();
+        try {
+            Document document = documents.get(id);
+            if (document != null) {
+                if (title == null) {
+                    title = document.title;
+                }
+                if (contentFrequencies == null) {
+                    contentFrequencies = indexedContent(id, document);
+                }
+            }
+            indexLocked(id, title, contentFrequencies != null ? contentFrequencies : Map.of());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public PostSearchResponse search(String query, long offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return new PostSearchResponse(0, Collections.emptyList());
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = score(terms);
+            List<Map.Entry<Long, Double>> top = top(scores, offset + limit);
+
+            List<PostSearchResponse.Hit> hits = new ArrayList<>();
+            for (long i = offset; i < top.size(); i++) {
+                Map.Entry<Long, Double> entry = top.get((int) i);
+                hits.add(new PostSearchResponse.Hit(entry.getKey(), documents.get(entry.getKey()).title, entry.getValue()));
+            }
+
+            return new PostSearchResponse(scores.size(), hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> score(Set<String> terms) {
+        Map<Long, Double> scores = new HashMap<>();
+        int documentCount = documents.size();
+        if (documentCount == 0) {
+            return scores;
+        }
+        double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+
+        for (String term : terms) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+
+            double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+            posting.forEach((id, frequency) -> {
+                double normalizedLength = 1 - B + B * documents.get(id).length / averageLength;
+                double score = idf * frequency * (K1 + 1) / (frequency + K1 * normalizedLength);
+                scores.merge(id, score, Double::sum);
+            });
+        }
+
+        return scores;
+    }
+
+    // 전체를 정렬하지 않고 상위 n 개만 힙으로 고른다.
+    private List<Map.Entry<Long, Double>> top(Map<Long, Double> scores, long n) {
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(BY_SCORE);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > n) {
+                heap.poll();
+            }
+        }
+
+        List<Map.Entry<Long, Double>> top = new ArrayList<>(heap);
+        top.sort(BY_SCORE.reversed());
+        return top;
+    }
+
+    private void indexLocked(Long id, String title, Map<String, Integer> contentFrequencies) {
+        Map<String, Integer> termFrequencies = new HashMap<>(contentFrequencies);
+        for (String token : Tokenizer.tokenize(title)) {
+            termFrequencies.merge(token, TITLE_BOOST, Integer::sum);
+        }
+        int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        removeLocked(id);
+        termFrequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, frequency));
+        documents.put(id, new Document(title, termFrequencies.keySet().toArray(new String[0]), length));
+        totalLength += length;
+    }
+
+    private Map<String, Integer> indexedContent(Long id, Document document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : document.terms) {
+            frequencies.put(term, postings.get(term).get(id));
+        }
+        for (String token : Tokenizer.tokenize(document.title)) {
+            frequencies.merge(token, -TITLE_BOOST, Integer::sum);
+        }
+        frequencies.values().removeIf(frequency -> frequency <= 0);
+        return frequencies;
+    }
+
+    private static Map<String, Integer> frequencies(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : Tokenizer.tokenize(text)) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    private void removeLocked(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+
+        for (String term : document.terms) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= document.length;
+    }
+
+    private static class Document {
+
+        private final String title;
+        private final String[] terms;
+        private final int length;
+
+        private Document(String title, String[] terms, int length) {
+            this.title = title;
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+}
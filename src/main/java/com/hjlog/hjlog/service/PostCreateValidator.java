@@ -0,0 +1,46 @@
+package com.hjlog.hjlog.service;
+
+import com.hjlog.hjlog.exception.InvalidRequest;
+import com.hjlog.hjlog.moderation.BannedWords;
+import com.hjlog.hjlog.request.PostCreate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @Valid 를 거치지 않는 경로(batch, import)에서 PostCreate 한 건을 검증한다.
+ * bean validation 과 PostCreate.validate(금지어) 를 모두 적용하고, 오류를 필드별 메시지로 돌려준다.
+ * */
+@Component
+@RequiredArgsConstructor
+public class PostCreateValidator {
+
+    private final Validator validator;
+    private final BannedWords bannedWords;
+
+    public Map<String, String> validate(PostCreate postCreate) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        if (postCreate == null) {
+            errors.put("post", "글 정보를 입력해주세요.");
+            return errors;
+        }
+
+        for (ConstraintViolation<PostCreate> violation : validator.validate(postCreate)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+
+        if (errors.isEmpty()) {
+            try {
+                postCreate.validate(bannedWords.current());
+            } catch (InvalidRequest e) {
+                errors.putAll(e.getValidation());
+            }
+        }
+
+        return errors;
+    }
+}
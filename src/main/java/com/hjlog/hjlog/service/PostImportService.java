@@ -0,0 +1,309 @@
+package com.hjlog.hjlog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.event.PostChangedEvent;
+import com.hjlog.hjlog.exception.ImportBusy;
+import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.request.PostCreate;
+import com.hjlog.hjlog.response.PostImportResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * NDJSON import
+ * parse -> validate -> insert 세 단계가 크기가 정해진 큐로 이어져 있어서,
+ * 뒤 단계가 느리면 앞 단계가 멈추고(backpressure) 요청 본문도 그만큼만 읽는다.
+ * insert 는 chunk 단위로 커밋하고, 커밋된 마지막 줄 번호를 돌려줘서 실패하면 그 다음 줄부터 재시도할 수 있다.
+ * 동시에 도는 import 는 max-concurrent 개까지이고, 넘으면 기다리지 않고 503 으로 거절한다.
+ * validate, insert 단계는 import 하나에 두 스레드씩 잡히도록 max-concurrent * 2 크기의 풀에서 돈다.
+ * */
+@Slf4j
+@Service
+public class PostImportService {
+
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private final PostCreateValidator postCreateValidator;
+    private final PostRepository postRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int queueCapacity;
+    private final Semaphore slots;
+    private final ExecutorService stages;
+
+    public PostImportService(PostCreateValidator postCreateValidator,
+                             PostRepository postRepository,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${hjlog.import.chunk-size:500}") int chunkSize,
+                             @Value("${hjlog.import.queue-capacity:1000}") int queueCapacity,
+                             @Value("${hjlog.import.max-concurrent:2}") int maxConcurrent) {
+        this.postCreateValidator = postCreateValidator;
+        this.postRepository = postRepository;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+        this.slots = new Semaphore(maxConcurrent);
+        // 단계 스레드가 모자라면 parse 가 꽉 찬 큐에서 영영 기다리므로, 자리를 잡은 import 마다 두 스레드가 남아 있어야 한다.
+        this.stages = Executors.newFixedThreadPool(maxConcurrent * 2, runnable -> {
+            Thread thread = new Thread(runnable, "post-import-stage");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stages.shutdownNow();
+    }
+
+    /**
+     * @param fromLine 1 부터 시작하는 줄 번호. 이전 줄은 읽고 버린다.
+     * */
+    public PostImportResponse importPosts(InputStream in, long fromLine) {
+        if (!slots.tryAcquire()) {
+            throw new ImportBusy();
+        }
+
+        try {
+            return run(in, fromLine);
+        } finally {
+            slots.release();
+        }
+    }
+
+    private PostImportResponse run(InputStream in, long fromLine) {
+        ImportJob job = new ImportJob(Math.max(1, fromLine) - 1);
+        BlockingQueue<Record> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Record> validated = new ArrayBlockingQueue<>(queueCapacity);
+
+        Future<?> validateStage = stages.submit(() -> validate(job, parsed, validated));
+        Future<?> insertStage = stages.submit(() -> insert(job, validated));
+
+        try {
+            parse(job, in, fromLine, parsed);
+        } catch (IOException e) {
+            log.warn("failed to read post import body", e);
+            job.abort("요청 본문을 읽는 중 오류가 발생했습니다. " + (job.lastCommittedLine + 1) + "번째 줄부터 다시 시도해주세요.");
+        } finally {
+            put(parsed, Record.END);
+            await(validateStage);
+            await(insertStage);
+        }
+
+        return job.toResponse();
+    }
+
+    private void parse(ImportJob job, InputStream in, long fromLine, BlockingQueue<Record> parsed) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        long line = 0;
+        String text;
+        while (!job.isAborted() && (text = reader.readLine()) != null) {
+            line++;
+            if (line < fromLine || text.isBlank()) {
+                continue;
+            }
+
+            try {
+                put(parsed, new Record(line, objectMapper.readValue(text, PostCreate.class)));
+            } catch (JsonProcessingException e) {
+                job.reject(line, Map.of("json", "JSON 형식이 올바르지 않습니다."));
+            }
+        }
+
+        job.lastReadLine = line;
+    }
+
+    private void validate(ImportJob job, BlockingQueue<Record> parsed, BlockingQueue<Record> validated) {
+        Record record;
+        while ((record = take(parsed)) != Record.END) {
+            if (job.isAborted()) {
+                continue;
+            }
+
+            try {
+                Map<String, String> validation = postCreateValidator.validate(record.postCreate);
+                if (validation.isEmpty()) {
+                    put(validated, record);
+                } else {
+                    job.reject(record.line, validation);
+                }
+            } catch (RuntimeException e) {
+                log.warn("post import validation failed at line {}", record.line, e);
+                job.abort("검증 중 오류가 발생했습니다. " + (job.lastCommittedLine + 1) + "번째 줄부터 다시 시도해주세요.");
+            }
+        }
+
+        put(validated, Record.END);
+    }
+
+    private void insert(ImportJob job, BlockingQueue<Record> validated) {
+        List<Record> chunk = new ArrayList<>(chunkSize);
+
+        Record record;
+        while ((record = take(validated)) != Record.END) {
+            // 실패한 뒤에도 끝까지 꺼내야 앞 단계가 put 에서 멈추지 않는다.
+            if (job.isAborted()) {
+                continue;
+            }
+
+            chunk.add(record);
+            if (chunk.size() == chunkSize) {
+                commit(job, chunk);
+            }
+        }
+
+        if (!job.isAborted()) {
+            commit(job, chunk);
+        }
+        if (!job.isAborted()) {
+            job.complete();
+        }
+    }
+
+    private void commit(ImportJob job, List<Record> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<Post> posts = new ArrayList<>(chunk.size());
+        for (Record record : chunk) {
+            posts.add(Post.builder()
+                    .title(record.postCreate.getTitle())
+                    .content(record.postCreate.getContent())
+                    .build());
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                postRepository.insertAll(posts);
+                posts.forEach(post -> eventPublisher.publishEvent(PostChangedEvent.created(post)));
+            });
+            job.committed(posts.size(), chunk.get(chunk.size() - 1).line);
+        } catch (RuntimeException e) {
+            log.warn("post import failed after line {}", job.lastCommittedLine, e);
+            job.abort("저장 중 오류가 발생했습니다. " + (job.lastCommittedLine + 1) + "번째 줄부터 다시 시도해주세요.");
+        }
+
+        chunk.clear();
+    }
+
+    private static void put(BlockingQueue<Record> queue, Record record) {
+        try {
+            queue.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Record take(BlockingQueue<Record> queue) {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(Future<?> stage) {
+        try {
+            stage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            log.warn("post import stage failed", e.getCause());
+        }
+    }
+
+    private static class Record {
+
+        private static final Record END = new Record(-1, null);
+
+        private final long line;
+        private final PostCreate postCreate;
+
+        private Record(long line, PostCreate postCreate) {
+            this.line = line;
+            this.postCreate = postCreate;
+        }
+    }
+
+    private static class ImportJob {
+
+        private final List<PostImportResponse.Rejection> rejections = new ArrayList<>();
+        private long accepted;
+        private long rejected;
+        private volatile long lastCommittedLine;
+        private volatile long lastReadLine;
+        private volatile boolean completed;
+        private volatile String failure;
+
+        private ImportJob(long lastCommittedLine) {
+            this.lastCommittedLine = lastCommittedLine;
+        }
+
+        private synchronized void reject(long line, Map<String, String> validation) {
+            rejected++;
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new PostImportResponse.Rejection(line, validation));
+            }
+        }
+
+        private synchronized void committed(int count, long line) {
+            accepted += count;
+            lastCommittedLine = line;
+        }
+
+        private void abort(String message) {
+            failure = message;
+        }
+
+        private boolean isAborted() {
+            return failure != null;
+        }
+
+        private void complete() {
+            completed = true;
+        }
+
+        private synchronized PostImportResponse toResponse() {
+            // 끝까지 성공했다면 마지막으로 읽은 줄까지 모두 처리된 것이다.
+            long committedLine = completed ? Math.max(lastCommittedLine, lastReadLine) : lastCommittedLine;
+            List<PostImportResponse.Rejection> sorted = new ArrayList<>(rejections);
+            sorted.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+
+            return new PostImportResponse(completed, accepted, rejected, committedLine, failure, sorted);
+        }
+    }
+}
@@ -1,29 +1,64 @@
 package com.hjlog.hjlog.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hjlog.hjlog.cache.PostCache;
+import com.hjlog.hjlog.cache.PostIdFilter;
+import com.hjlog.hjlog.counter.PopularPosts;
+import com.hjlog.hjlog.counter.PostViewCounter;
+import com.hjlog.hjlog.datasource.PrimaryOnly;
 import com.hjlog.hjlog.domain.Post;
 import com.hjlog.hjlog.domain.PostEditor;
+import com.hjlog.hjlog.event.PostChangedEvent;
+import com.hjlog.hjlog.exception.InvalidRequest;
 import com.hjlog.hjlog.exception.PostNotFound;
+import com.hjlog.hjlog.exception.PreconditionFailed;
 import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.repository.PostVersion;
 import com.hjlog.hjlog.request.PostCreate;
 import com.hjlog.hjlog.request.PostEdit;
 import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.PostBatchResponse;
+import com.hjlog.hjlog.response.PostCursorResponse;
+import com.hjlog.hjlog.response.PostExportResponse;
+import com.hjlog.hjlog.response.PostLookupResponse;
 import com.hjlog.hjlog.response.PostResponse;
+import com.hjlog.hjlog.response.PostSummaryResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PostService {
 
+    private static final int MAX_BATCH_SIZE = 10_000;
+    private static final int MAX_LOOKUP_SIZE = 100;
+
     private final PostRepository postRepository;
+    private final PostCreateValidator postCreateValidator;
+    private final PostCache postCache;
+    private final PostIdFilter postIdFilter;
+    private final PostViewCounter postViewCounter;
+    private final PopularPosts popularPosts;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
 
+    @Transactional
     public void write(PostCreate postCreate) {
 
         Post post = Post.builder()
@@ -32,44 +67,213 @@ public class PostService {
                 .build();
 
         postRepository.save(post);
+        eventPublisher.publishEvent(PostChangedEvent.created(post));
+    }
+
+    @Transactional
+    public PostBatchResponse writeAll(List<PostCreate> postCreates) {
+        if (postCreates == null || postCreates.isEmpty() || postCreates.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequest("posts", "글은 한 번에 1개 이상 " + MAX_BATCH_SIZE + "개 이하로 등록할 수 있습니다.");
+        }
+
+        List<Post> posts = new ArrayList<>();
+        List<PostBatchResponse.ItemError> errors = new ArrayList<>();
+
+        for (int i = 0; i < postCreates.size(); i++) {
+            PostCreate postCreate = postCreates.get(i);
+            Map<String, String> validation = postCreateValidator.validate(postCreate);
+
+            if (!validation.isEmpty()) {
+                errors.add(new PostBatchResponse.ItemError(i, validation));
+                continue;
+            }
+
+            posts.add(Post.builder()
+                    .title(postCreate.getTitle())
+                    .content(postCreate.getContent())
+                    .build());
+        }
+
+        postRepository.insertAll(posts);
+        posts.forEach(post -> eventPublisher.publishEvent(PostChangedEvent.created(post)));
+
+        return new PostBatchResponse(posts.size(), errors);
     }
 
+    /**
+     * 조회수를 하나 올린다. 응답의 views 에는 아직 DB 에 반영되지 않은 조회수도 들어있다.
+     * */
     public PostResponse get(Long id) {
-        Post post = postRepository.findById(id)
-                .orElseThrow(PostNotFound::new);
+        PostResponse post = peek(id);
+        return view(post);
+    }
+
+    /**
+     * get 을 여러 번 부르는 것과 같지만, 캐시에 없는 글만 모아서 한 번의 쿼리로 읽는다.
+     * 중복 id 는 한 번만 담고, 없는 글은 missing 으로 돌려준다.
+     * */
+    public PostLookupResponse getAll(List<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > MAX_LOOKUP_SIZE) {
+            throw new InvalidRequest("ids", "한 번에 최대 " + MAX_LOOKUP_SIZE + "개까지 조회할 수 있습니다.");
+        }
+
+        List<Long> candidates = requested.stream()
+                .filter(postIdFilter::mightContain)
+                .collect(Collectors.toList());
+        Map<Long, PostResponse> found = postCache.getAll(candidates, this::loadAll);
+
+        List<PostResponse> posts = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            PostResponse post = found.get(id);
+            if (post == null) {
+                missing.add(id);
+            } else {
+                posts.add(view(post));
+            }
+        }
+        return new PostLookupResponse(posts, missing);
+    }
+
+    private PostResponse view(PostResponse post) {
+        popularPosts.record(post.getId());
+        return post.plusViews(postViewCounter.increment(post.getId()));
+    }
+
+    /**
+     * 조회수를 올리지 않는다. (캐시 갱신 같은 내부 조회용)
+     * */
+    public PostResponse peek(Long id) {
+        if (!postIdFilter.mightContain(id)) {
+            throw new PostNotFound();
+        }
+        return postCache.get(id, this::load);
+    }
 
+    // PostCache 는 변경 이벤트로만 지워지므로 늦을 수 있는 복제본이 아니라 primary 에서 채운다.
+    private PostResponse load(Long id) {
+        try (PrimaryOnly ignored = PrimaryOnly.begin()) {
+            return toResponse(postRepository.findById(id)
+                    .orElseThrow(PostNotFound::new));
+        }
+    }
+
+    private Map<Long, PostResponse> loadAll(Iterable<? extends Long> ids) {
+        List<Long> missed = new ArrayList<>();
+        ids.forEach(missed::add);
+        try (PrimaryOnly ignored = PrimaryOnly.begin()) {
+            return postRepository.getAll(missed).stream()
+                    .collect(Collectors.toMap(Post::getId, this::toResponse));
+        }
+    }
+
+    private PostResponse toResponse(Post post) {
         return PostResponse.builder()
                 .id(post.getId())
                 .title(post.getTitle())
                 .content(post.getContent())
+                .views(post.getViews())
+                .version(post.getVersion())
                 .build();
     }
 
-    public List<PostResponse> getList(PostSearch postSearch) {
+    /**
+     * 조건부 요청(ETag) 검사용. 캐시에 있으면 DB 를 보지 않고, 없으면 version 컬럼만 읽는다.
+     * */
+    public long getVersion(Long id) {
+        PostResponse cached = postCache.getIfPresent(id);
+        if (cached != null && cached.getVersion() != null) {
+            return cached.getVersion();
+        }
+        if (!postIdFilter.mightContain(id)) {
+            throw new PostNotFound();
+        }
 
-        return postRepository.getList(postSearch).stream()
-                .map(PostResponse::new)
-                .collect(Collectors.toList());
+        Long version = postRepository.getVersion(id);
+        if (version == null) {
+            throw new PostNotFound();
+        }
+        return version;
+    }
+
+    @Transactional(readOnly = true)
+    public List<PostSummaryResponse> getList(PostSearch postSearch) {
+        return postRepository.getList(postSearch);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PostVersion> getListVersions(PostSearch postSearch) {
+        return postRepository.getListVersions(postSearch);
+    }
+
+    @Transactional(readOnly = true)
+    public PostCursorResponse getCursorList(PostSearch postSearch) {
+        List<PostSummaryResponse> posts = getList(postSearch);
+
+        String nextCursor = posts.isEmpty() || posts.size() < postSearch.getLimit()
+                ? null
+                : PostSearch.encodeCursor(posts.get(posts.size() - 1).getId());
+
+        return new PostCursorResponse(posts, nextCursor);
+    }
+
+    /**
+     * 모든 글을 한 줄에 하나씩 JSON 으로(NDJSON) out 에 쓴다. out 은 닫지 않는다.
+     * */
+    @Transactional(readOnly = true)
+    public long export(Long sinceId, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        long count = 0;
+        try (Stream<PostExportResponse> posts = postRepository.streamAll(sinceId)) {
+            Iterator<PostExportResponse> iterator = posts.iterator();
+            while (iterator.hasNext()) {
+                objectMapper.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+
+        generator.flush();
+        return count;
     }
 
     @Transactional
     public void edit(Long id, PostEdit postEdit) {
-        Post post = postRepository.findById(id)
-                .orElseThrow(PostNotFound::new);
+        edit(id, postEdit, null);
+    }
 
-        PostEditor.PostEditorBuilder editorBuilder = post.toEditor();
-        PostEditor postEditor = editorBuilder
+    /**
+     * 글을 읽지 않고 UPDATE 한 번으로 수정한다. 바뀐 행이 없을 때만 글이 있는지 다시 확인한다.
+     * @param expectedVersion If-Match 로 받은 version. null 이면 검사하지 않는다.
+     * */
+    @Transactional
+    public void edit(Long id, PostEdit postEdit, Long expectedVersion) {
+        PostEditor postEditor = PostEditor.builder()
                 .title(postEdit.getTitle())
                 .content(postEdit.getContent())
                 .build();
 
-        post.edit(postEditor);
+        long updated = postRepository.update(id, expectedVersion, postEditor);
+        if (updated == 0) {
+            if (expectedVersion != null && postRepository.getVersion(id) != null) {
+                throw new PreconditionFailed();
+            }
+            throw new PostNotFound();
+        }
+
+        eventPublisher.publishEvent(PostChangedEvent.edited(id, postEditor));
     }
 
+    @Transactional
     public void delete(Long id) {
-        Post post = postRepository.findById(id)
-                .orElseThrow(PostNotFound::new);
+        if (postRepository.remove(id) == 0) {
+            throw new PostNotFound();
+        }
 
-        postRepository.delete(post);
+        eventPublisher.publishEvent(PostChangedEvent.deleted(id));
     }
 }
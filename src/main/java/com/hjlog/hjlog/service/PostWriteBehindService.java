@@ -0,0 +1,240 @@
+package com.hjlog.hjlog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.event.PostChangedEvent;
+import com.hjlog.hjlog.exception.PostWriteNotFound;
+import com.hjlog.hjlog.exception.WriteBufferFull;
+import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.request.PostCreate;
+import com.hjlog.hjlog.response.PostWriteResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * write-behind 글 작성 (hjlog.write-behind.enabled)
+ * 검증이 끝난 요청을 크기가 정해진 버퍼에 넣고 바로 돌려준다.
+ * writer 스레드 하나가 batch-size 가 차거나 linger 가 지나면 한 트랜잭션으로 모아서 저장한다.
+ * 종료할 때는 새 요청을 받지 않고 버퍼에 남은 요청을 모두 저장한 뒤 멈춘다.
+ * */
+@Slf4j
+@Service
+public class PostWriteBehindService implements SmartLifecycle {
+
+    /**
+     * 버퍼가 가득 찼을 때
+     * BLOCK: block-timeout 동안 자리가 나기를 기다린 뒤 거절한다.
+     * REJECT: 기다리지 않고 바로 거절한다.
+     * */
+    public enum Overflow {
+        BLOCK, REJECT
+    }
+
+    private final PostRepository postRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Overflow overflow;
+    private final long blockTimeoutNanos;
+    private final BlockingQueue<Pending> buffer;
+    private final Cache<String, PostWriteResponse> statuses;
+
+    // enqueue 는 read lock, stop 은 write lock 을 잡아서 멈춘 뒤에 버퍼에 들어가는 요청이 없게 한다.
+    private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread writer;
+
+    public PostWriteBehindService(PostRepository postRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${hjlog.write-behind.enabled:false}") boolean enabled,
+                                  @Value("${hjlog.write-behind.capacity:10000}") int capacity,
+                                  @Value("${hjlog.write-behind.batch-size:500}") int batchSize,
+                                  @Value("${hjlog.write-behind.linger:50ms}") Duration linger,
+                                  @Value("${hjlog.write-behind.overflow:BLOCK}") Overflow overflow,
+                                  @Value("${hjlog.write-behind.block-timeout:1s}") Duration blockTimeout,
+                                  @Value("${hjlog.write-behind.status-ttl:10m}") Duration statusTtl) {
+        this.postRepository = postRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.overflow = overflow;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public PostWriteResponse enqueue(PostCreate postCreate) {
+        Pending pending = new Pending(UUID.randomUUID().toString(), postCreate);
+        PostWriteResponse response = PostWriteResponse.pending(pending.trackingId);
+        statuses.put(pending.trackingId, response);
+
+        lifecycleLock.readLock().lock();
+        try {
+            if (!running || !offer(pending)) {
+                statuses.invalidate(pending.trackingId);
+                throw new WriteBufferFull();
+            }
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+
+        return response;
+    }
+
+    public PostWriteResponse getStatus(String trackingId) {
+        PostWriteResponse response = statuses.getIfPresent(trackingId);
+        if (response == null) {
+            throw new PostWriteNotFound();
+        }
+        return response;
+    }
+
+    private boolean offer(Pending pending) {
+        if (overflow == Overflow.REJECT) {
+            return buffer.offer(pending);
+        }
+
+        try {
+            return buffer.offer(pending, blockTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                Pending first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < batchSize) {
+                    Pending next = running
+                            ? buffer.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+                            : buffer.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("post write-behind writer interrupted, {} posts left in buffer", buffer.size());
+                return;
+            } finally {
+                flush(batch);
+            }
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Post> posts = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            posts.add(Post.builder()
+                    .title(pending.postCreate.getTitle())
+                    .content(pending.postCreate.getContent())
+                    .build());
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                postRepository.insertAll(posts);
+                posts.forEach(post -> eventPublisher.publishEvent(PostChangedEvent.created(post)));
+            });
+
+            for (int i = 0; i < batch.size(); i++) {
+                String trackingId = batch.get(i).trackingId;
+                statuses.put(trackingId, PostWriteResponse.durable(trackingId, posts.get(i).getId()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("post write-behind flush of {} posts failed", batch.size(), e);
+            for (Pending pending : batch) {
+                statuses.put(pending.trackingId, PostWriteResponse.failed(pending.trackingId, "저장 중 오류가 발생했습니다. 다시 시도해주세요."));
+            }
+        }
+
+        batch.clear();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+
+        running = true;
+        writer = new Thread(this::writeLoop, "post-write-behind");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+
+        lifecycleLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static class Pending {
+        private final String trackingId;
+        private final PostCreate postCreate;
+
+        private Pending(String trackingId, PostCreate postCreate) {
+            this.trackingId = trackingId;
+            this.postCreate = postCreate;
+        }
+    }
+}
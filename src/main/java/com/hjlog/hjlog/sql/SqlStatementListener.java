@@ -0,0 +1,49 @@
+package com.hjlog.hjlog.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 실행된 SQL 을 SqlStats 에 더하고, 느린 SQL 은 호출한 서비스 메서드와 함께 남긴다.
+ * */
+@Slf4j
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final String SERVICE_PACKAGE = "com.hjlog.hjlog.service.";
+
+    private final long slowThresholdMillis;
+
+    public SqlStatementListener(long slowThresholdMillis) {
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMillis = execInfo.getElapsedTime();
+        SqlStats.record(elapsedMillis * 1_000_000);
+
+        if (elapsedMillis >= slowThresholdMillis) {
+            log.warn("느린 SQL {}ms ({}): {}", elapsedMillis, caller(), queryInfoList.stream()
+                    .map(QueryInfo::getQuery)
+                    .collect(Collectors.joining("; ")));
+        }
+    }
+
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(SERVICE_PACKAGE))
+                .filter(frame -> !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(SERVICE_PACKAGE.length()) + "." + frame.getMethodName())
+                .orElse("unknown"));
+    }
+}
@@ -0,0 +1,47 @@
+package com.hjlog.hjlog.sql;
+
+import lombok.Getter;
+
+/**
+ * 현재 스레드에서 실행된 SQL 문 수와 시간을 모은다.
+ * begin 으로 열고 close 로 닫는다. 겹쳐 열면 바깥 범위에도 함께 더해진다.
+ * */
+@Getter
+public final class SqlStats implements AutoCloseable {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private final SqlStats parent;
+    private int count;
+    private long nanos;
+
+    private SqlStats(SqlStats parent) {
+        this.parent = parent;
+    }
+
+    public static SqlStats begin() {
+        SqlStats stats = new SqlStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void record(long nanos) {
+        for (SqlStats stats = CURRENT.get(); stats != null; stats = stats.parent) {
+            stats.count++;
+            stats.nanos += nanos;
+        }
+    }
+
+    public long getMillis() {
+        return nanos / 1_000_000;
+    }
+
+    @Override
+    public void close() {
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.hjlog.hjlog.sql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * 요청 동안 실행된 SQL 문 수와 시간을 응답 헤더로 내려준다.
+ * 헤더는 커밋 전에만 쓸 수 있어서 본문을 쓰기 직전이나 요청이 끝날 때 붙인다.
+ * */
+@Component
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    public static final String COUNT_HEADER = "X-Sql-Count";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+
+    private final boolean debugHeader;
+
+    public SqlStatsFilter(@Value("${hjlog.sql.debug-header:false}") boolean debugHeader) {
+        this.debugHeader = debugHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (SqlStats stats = SqlStats.begin()) {
+            if (!debugHeader) {
+                chain.doFilter(request, response);
+                return;
+            }
+
+            StatsHeaderResponse wrapped = new StatsHeaderResponse(response, stats);
+            try {
+                chain.doFilter(request, wrapped);
+            } finally {
+                wrapped.writeHeaders();
+            }
+        }
+    }
+
+    private static class StatsHeaderResponse extends HttpServletResponseWrapper {
+
+        private final SqlStats stats;
+        private boolean written;
+
+        StatsHeaderResponse(HttpServletResponse response, SqlStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(COUNT_HEADER, String.valueOf(stats.getCount()));
+            setHeader(TIME_HEADER, String.valueOf(stats.getMillis()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.hjlog.hjlog.controller;
+
+import com.hjlog.hjlog.feed.PostAtomFeed;
+import com.hjlog.hjlog.request.PostCreate;
+import com.hjlog.hjlog.request.PostEdit;
+import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.PostSummaryResponse;
+import com.hjlog.hjlog.service.PostService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.hjlog.hjlog.sql.SqlAssertions.assertStatementsAtMost;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.LAST_MODIFIED;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@SpringBootTest
+class FeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostAtomFeed postAtomFeed;
+
+    @Test
+    @DisplayName("최신 글을 Atom 피드로 내려주고, 바뀌지 않았으면 304")
+    void test1() throws Exception {
+        // given
+        postService.write(PostCreate.builder().title("피드 글 1").content("피드 내용 1").build());
+        postService.write(PostCreate.builder().title("피드 글 2").content("피드 내용 2").build());
+
+        // when
+        String feed = awaitFeed(xml -> xml.contains("피드 글 2"));
+
+        // then
+        assertTrue(feed.startsWith("<?xml"));
+        assertTrue(feed.contains("<feed xmlns=\"http://www.w3.org/2005/Atom\">"));
+        assertTrue(feed.indexOf("피드 글 2") < feed.indexOf("피드 글 1"));
+
+        String eTag = mockMvc.perform(get("/feed.xml"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/atom+xml;charset=UTF-8"))
+                .andExpect(header().exists(LAST_MODIFIED))
+                .andReturn()
+                .getResponse()
+                .getHeader(ETAG);
+
+        mockMvc.perform(get("/feed.xml")
+                        .header(IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("창 안의 글이 연달아 바뀌면 피드는 한 번만 다시 만든다")
+    void test2() throws Exception {
+        // given
+        postService.write(PostCreate.builder().title("디바운스").content("내용").build());
+        String created = awaitFeed(xml -> xml.contains("디바운스"));
+        Long postId = Long.valueOf(created.replaceAll("(?s).*/posts/(\\d+)</id><title>디바운스<.*", "$1"));
+        Thread.sleep(300);
+        long before = postAtomFeed.getBuildCount();
+
+        // when
+        for (int i = 1; i <= 20; i++) {
+            postService.edit(postId, PostEdit.builder()
+                    .title("디바운스 수정 " + i)
+                    .content("내용 " + i)
+                    .build());
+        }
+        String edited = awaitFeed(xml -> xml.contains("디바운스 수정 20"));
+
+        // then
+        assertFalse(edited.contains("디바운스 수정 19<"));
+        assertTrue(postAtomFeed.getBuildCount() - before <= 2, "builds: " + (postAtomFeed.getBuildCount() - before));
+    }
+
+    @Test
+    @DisplayName("창 안의 글을 지우면 커밋하는 스레드에서 DB 를 읽지 않고, 빈자리는 모아서 한 번에 채운다")
+    void test3() throws Exception {
+        // given
+        IntStream.rangeClosed(1, 25)
+                .forEach(i -> postService.write(PostCreate.builder().title("삭제 창 " + i).content("내용").build()));
+        List<Long> newest = postService.getList(PostSearch.builder().page(1).size(10).build()).stream()
+                .map(PostSummaryResponse::getId)
+                .collect(Collectors.toList());
+        awaitFeed(xml -> xml.contains("삭제 창 25<"));
+
+        // when
+        for (Long id : newest) {
+            assertStatementsAtMost(1, () -> postService.delete(id));
+        }
+        String feed = awaitFeed(xml -> xml.contains("삭제 창 1<"));
+
+        // then
+        assertTrue(feed.contains("삭제 창 15<"));
+        assertFalse(feed.contains("삭제 창 16<"));
+        assertFalse(feed.contains("삭제 창 25<"));
+    }
+
+    private String awaitFeed(Predicate<String> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String feed = new String(postAtomFeed.get().getBody(), StandardCharsets.UTF_8);
+        while (!condition.test(feed) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            feed = new String(postAtomFeed.get().getBody(), StandardCharsets.UTF_8);
+        }
+        return feed;
+    }
+}
@@ -0,0 +1,79 @@
+package com.hjlog.hjlog.controller;
+
+import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.service.PostService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMetrics
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@SpringBootTest
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostService postService;
+
+    @Test
+    @DisplayName("prometheus 로 핸들러별 지연 히스토그램, 예외 수, hibernate, 커넥션 풀 메트릭을 노출한다.")
+    void test1() throws Exception {
+        // given
+        mockMvc.perform(get("/posts/{postId}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+
+        // expected
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("handler=\"PostController.get\"")))
+                .andExpect(content().string(containsString("hjlog_exceptions_total{exception=\"PostNotFound\",status=\"404\",}")))
+                .andExpect(content().string(containsString("hibernate_entities_loads_total")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending")));
+    }
+
+    @Test
+    @DisplayName("id 필터가 바로 돌려주는 404 도 예외 수에 센다.")
+    void test2() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("지울 글")
+                .content("내용")
+                .build());
+        postService.delete(post.getId());
+        double before = notFoundCount();
+
+        // when
+        mockMvc.perform(get("/posts/{postId}", post.getId()))
+                .andExpect(status().isNotFound());
+
+        // then
+        assertEquals(before + 1, notFoundCount());
+    }
+
+    private double notFoundCount() {
+        return meterRegistry.counter("hjlog.exceptions", "exception", "PostNotFound", "status", "404").count();
+    }
+}
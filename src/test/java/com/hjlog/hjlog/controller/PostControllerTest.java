@@ -1,30 +1,47 @@
 package com.hjlog.hjlog.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hjlog.hjlog.cache.PostListCache;
 import com.hjlog.hjlog.domain.Post;
 import com.hjlog.hjlog.repository.PostRepository;
 import com.hjlog.hjlog.request.PostCreate;
 import com.hjlog.hjlog.request.PostEdit;
+import com.hjlog.hjlog.service.PostService;
+import com.hjlog.hjlog.sql.SqlStatsFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @AutoConfigureMockMvc
+@ActiveProfiles("test")
 @SpringBootTest
 class PostControllerTest {
 
@@ -37,9 +54,19 @@ class PostControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private PostListCache postListCache;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void clean() {
         postRepository.deleteAll();
+        postListCache.invalidateAll();
     }
 
     @Test
@@ -274,4 +301,574 @@ class PostControllerTest {
                 .andExpect(status().isBadRequest())
                 .andDo(print());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("커서로 글 여러개 조회")
+    public void test12() throws Exception {
+        // given
+        List<Post> requestPosts = IntStream.range(1, 31)
+                .mapToObj(i -> Post.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .build())
+                .collect(Collectors.toList());
+        postRepository.saveAll(requestPosts);
+
+        // expected
+        mockMvc.perform(get("/posts?cursor=&size=10")
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.posts.length()", is(10)))
+                .andExpect(jsonPath("$.posts[0].title").value("제목 - 30"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("캐시된 글 목록은 작성, 수정, 삭제 후 갱신된다")
+    public void test13() throws Exception {
+        // given
+        for (int i = 1; i <= 25; i++) {
+            mockMvc.perform(post("/posts")
+                            .contentType(APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(PostCreate.builder()
+                                    .title("제목 - " + i)
+                                    .content("내용 - " + i)
+                                    .build())))
+                    .andExpect(status().isOk());
+        }
+        List<Post> posts = postRepository.findAll();
+        Post newest = posts.get(posts.size() - 1);
+        Post second = posts.get(posts.size() - 2);
+
+        mockMvc.perform(get("/posts?page=1&size=20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(20)))
+                .andExpect(jsonPath("$[0].title").value("제목 - 25"));
+
+        // when
+        mockMvc.perform(patch("/posts/{postId}", second.getId())
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(PostEdit.builder()
+                                .title("수정된 제목")
+                                .content("내용 - 24")
+                                .build())))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/posts/{postId}", newest.getId()))
+                .andExpect(status().isOk());
+
+        // then
+        mockMvc.perform(get("/posts?page=1&size=20"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()", is(20)))
+                .andExpect(jsonPath("$[0].title").value("수정된 제목"))
+                .andExpect(jsonPath("$[19].title").value("제목 - 5"))
+                .andDo(print());
+
+        mockMvc.perform(get("/posts?page=2&size=20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(4)))
+                .andExpect(jsonPath("$[0].title").value("제목 - 4"));
+    }
+
+    @Test
+    @DisplayName("글 여러개 한번에 작성")
+    public void test14() throws Exception {
+        // given
+        List<PostCreate> request = List.of(
+                PostCreate.builder().title("제목 - 1").content("내용 - 1").build(),
+                PostCreate.builder().title("제목 - 2").build());
+
+        // expected
+        mockMvc.perform(post("/posts/batch")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].validation.content").value("content를 입력해주세요."))
+                .andDo(print());
+
+        assertEquals(1L, postRepository.count());
+    }
+
+    @Test
+    @DisplayName("글 전체를 NDJSON 으로 내보낸다")
+    public void test15() throws Exception {
+        // given
+        postRepository.saveAll(List.of(
+                Post.builder().title("title1").content("content1").build(),
+                Post.builder().title("title2").content("content2").build()));
+
+        // when
+        MvcResult result = mockMvc.perform(get("/posts/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andDo(print());
+
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("title1", objectMapper.readTree(lines[0]).get("title").asText());
+        assertEquals("content2", objectMapper.readTree(lines[1]).get("content").asText());
+    }
+
+    @Test
+    @DisplayName("NDJSON 으로 글을 가져온다")
+    public void test16() throws Exception {
+        // given
+        String body = "{\"title\":\"title1\",\"content\":\"content1\"}\n"
+                + "{\"content\":\"content2\"}\n";
+
+        // expected
+        mockMvc.perform(post("/posts/import")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(true))
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.lastCommittedLine").value(2))
+                .andExpect(jsonPath("$.rejections[0].line").value(2))
+                .andDo(print());
+
+        assertEquals(1L, postRepository.count());
+    }
+
+    @Test
+    @DisplayName("페이지 파라미터 없이 글 여러개 조회")
+    public void test17() throws Exception {
+        // given
+        postRepository.save(Post.builder()
+                .title("title1")
+                .content("content1")
+                .build());
+
+        // expected
+        mockMvc.perform(get("/posts?size=10")
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 검색")
+    public void test18() throws Exception {
+        // given
+        mockMvc.perform(post("/posts")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(PostCreate.builder()
+                                .title("검색 엔진 만들기")
+                                .content("역색인과 BM25 로 랭킹을 매긴다.")
+                                .build())))
+                .andExpect(status().isOk());
+
+        // expected
+        mockMvc.perform(get("/posts/search?q=역색인")
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.hits[0].title").value("검색 엔진 만들기"))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("검색어 없이 검색하면 400")
+    public void test19() throws Exception {
+        // expected
+        mockMvc.perform(get("/posts/search")
+                        .contentType(APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validation.q").value("검색어를 입력해주세요."))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 한개 조회 - 바뀌지 않았으면 304")
+    public void test20() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+
+        String eTag = mockMvc.perform(get("/posts/{postId}", post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(ETAG);
+
+        // expected
+        mockMvc.perform(get("/posts/{postId}", post.getId())
+                        .header(IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(ETAG, eTag))
+                .andExpect(content().string(""))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 한개 조회 - 수정되었으면 새 ETag 와 함께 200")
+    public void test21() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+
+        String eTag = mockMvc.perform(get("/posts/{postId}", post.getId()))
+                .andReturn()
+                .getResponse()
+                .getHeader(ETAG);
+
+        mockMvc.perform(patch("/posts/{postId}", post.getId())
+                        .contentType(APPLICATION_JSON)
+                        .header(IF_MATCH, eTag)
+                        .content(objectMapper.writeValueAsString(PostEdit.builder()
+                                .title("foo2")
+                                .content("bar")
+                                .build())))
+                .andExpect(status().isOk());
+
+        // expected
+        mockMvc.perform(get("/posts/{postId}", post.getId())
+                        .header(IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("foo2"))
+                .andExpect(header().string(ETAG, not(eTag)))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 수정 - If-Match 가 현재 버전과 다르면 412")
+    public void test22() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+
+        String staleETag = mockMvc.perform(get("/posts/{postId}", post.getId()))
+                .andReturn()
+                .getResponse()
+                .getHeader(ETAG);
+
+        PostEdit postEdit = PostEdit.builder()
+                .title("foo2")
+                .content("bar")
+                .build();
+
+        mockMvc.perform(patch("/posts/{postId}", post.getId())
+                        .contentType(APPLICATION_JSON)
+                        .header(IF_MATCH, staleETag)
+                        .content(objectMapper.writeValueAsString(postEdit)))
+                .andExpect(status().isOk());
+
+        // expected
+        mockMvc.perform(patch("/posts/{postId}", post.getId())
+                        .contentType(APPLICATION_JSON)
+                        .header(IF_MATCH, staleETag)
+                        .content(objectMapper.writeValueAsString(postEdit)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value("412"))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 여러개 조회 - 바뀌지 않았으면 304")
+    public void test23() throws Exception {
+        // given
+        postRepository.save(Post.builder()
+                .title("title1")
+                .content("content1")
+                .build());
+
+        for (String query : List.of("/posts?page=1&size=20", "/posts?page=1&size=10")) {
+            String eTag = mockMvc.perform(get(query))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getHeader(ETAG);
+
+            // expected
+            mockMvc.perform(get(query)
+                            .header(IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andDo(print());
+        }
+    }
+
+    @Test
+    @DisplayName("요청 동안 실행된 SQL 수를 응답 헤더로 내려준다")
+    public void test24() throws Exception {
+        // given
+        postRepository.save(Post.builder()
+                .title("title1")
+                .content("content1")
+                .build());
+
+        // expected
+        mockMvc.perform(get("/posts?page=1&size=10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatsFilter.COUNT_HEADER, "1"))
+                .andExpect(header().exists(SqlStatsFilter.TIME_HEADER))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("존재하지 않는 글 조회 - 404")
+    public void test25() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("title1")
+                .content("content1")
+                .build());
+        postRepository.save(Post.builder()
+                .title("title2")
+                .content("content2")
+                .build());
+        postService.delete(post.getId());
+
+        // expected
+        mockMvc.perform(get("/posts/{postId}", post.getId()))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(SqlStatsFilter.COUNT_HEADER, "0"))
+                .andExpect(jsonPath("$.code").value("404"))
+                .andExpect(jsonPath("$.message").value("존재하지 않는 글입니다."))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 작성, 수정시 제목과 내용의 금지어를 모두 알려준다")
+    public void test26() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("title1")
+                .content("content1")
+                .build());
+
+        PostCreate request = PostCreate.builder()
+                .title("나는 바보")
+                .content("너도 바보")
+                .build();
+
+        PostEdit postEdit = PostEdit.builder()
+                .title("제목")
+                .content("수정해도 바보")
+                .build();
+
+        // expected
+        mockMvc.perform(post("/posts")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validation.title").value("제목에 바보를 포함할 수 없습니다."))
+                .andExpect(jsonPath("$.validation.content").value("내용에 바보를 포함할 수 없습니다."))
+                .andDo(print());
+
+        mockMvc.perform(patch("/posts/{postId}", post.getId())
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(postEdit)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validation.title").doesNotExist())
+                .andExpect(jsonPath("$.validation.content").value("내용에 바보를 포함할 수 없습니다."))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 변경을 SSE 로 받고, Last-Event-ID 로 이어서 받는다")
+    public void test27() throws Exception {
+        // given
+        MvcResult live = mockMvc.perform(get("/posts/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // when
+        postService.write(PostCreate.builder().title("변경 피드 1").content("내용").build());
+        postService.write(PostCreate.builder().title("변경 피드 2").content("내용").build());
+
+        // then
+        String events = awaitContent(live, "변경 피드 2");
+        assertTrue(events.contains("event:created"));
+        Matcher matcher = Pattern.compile("id:(\\d+)\nevent:created\ndata:[^\n]*변경 피드 1").matcher(events);
+        assertTrue(matcher.find(), events);
+        long firstSeq = Long.parseLong(matcher.group(1));
+
+        MvcResult resumed = mockMvc.perform(get("/posts/changes")
+                        .header("Last-Event-ID", firstSeq))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String replayed = awaitContent(resumed, "변경 피드 2");
+        assertTrue(replayed.contains("id:" + (firstSeq + 1)));
+        assertFalse(replayed.contains("변경 피드 1"));
+    }
+
+    @Test
+    @DisplayName("글 내용을 이스케이프한 HTML 로 렌더링하고, 수정하면 다시 렌더링한다")
+    public void test28() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("마크다운")
+                .content("# 머리말\n\n<script>alert(1)</script>\n\n[링크](javascript:alert(1)) **굵게**")
+                .build());
+
+        // expected
+        mockMvc.perform(get("/posts/{postId}/html", post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/html;charset=UTF-8"))
+                .andExpect(content().string(containsString("<h1>머리말</h1>")))
+                .andExpect(content().string(containsString("&lt;script&gt;")))
+                .andExpect(content().string(containsString("<strong>굵게</strong>")))
+                .andExpect(content().string(not(containsString("javascript:"))))
+                .andDo(print());
+
+        PostEdit postEdit = PostEdit.builder()
+                .title("마크다운")
+                .content("## 고친 머리말")
+                .build();
+        mockMvc.perform(patch("/posts/{postId}", post.getId())
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(postEdit)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/posts/{postId}/html", post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("<h2>고친 머리말</h2>")))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("캐시하지 않는 긴 글은 HTML 을 스트림으로 렌더링한다")
+    public void test29() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("긴 글")
+                .content("긴 문단입니다.\n\n".repeat(10_000))
+                .build());
+
+        // when
+        String html = mockMvc.perform(get("/posts/{postId}/html", post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/html;charset=UTF-8"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        // then
+        assertEquals(10_000, html.split("<p>긴 문단입니다.</p>", -1).length - 1);
+    }
+
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        String content = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        }
+        return content;
+    }
+
+    @Test
+    @DisplayName("최근 1시간 동안 많이 조회된 글을 순서대로 보여준다")
+    public void test30() throws Exception {
+        // given
+        Post hot = postRepository.save(Post.builder().title("인기 글").content("인기 내용").build());
+        Post warm = postRepository.save(Post.builder().title("보통 글").content("보통 내용").build());
+        for (int i = 0; i < 100; i++) {
+            mockMvc.perform(get("/posts/{postId}", hot.getId())).andExpect(status().isOk());
+        }
+        for (int i = 0; i < 90; i++) {
+            mockMvc.perform(get("/posts/{postId}", warm.getId())).andExpect(status().isOk());
+        }
+
+        // expected
+        mockMvc.perform(get("/posts/popular?window=1h&size=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window").value("PT1H"))
+                .andExpect(jsonPath("$.posts.length()", is(2)))
+                .andExpect(jsonPath("$.posts[0].id").value(hot.getId()))
+                .andExpect(jsonPath("$.posts[1].id").value(warm.getId()))
+                .andDo(print());
+
+        mockMvc.perform(get("/posts/popular?window=한시간"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.validation.window").value("기간은 1h, 30m 같은 형식으로 입력해주세요."));
+    }
+
+    @Test
+    @DisplayName("ids 로 여러 글을 한 번에 조회한다")
+    public void test31() throws Exception {
+        // given
+        Post first = postRepository.save(Post.builder().title("첫 번째").content("내용1").build());
+        Post second = postRepository.save(Post.builder().title("두 번째").content("내용2").build());
+
+        // expected
+        mockMvc.perform(get("/posts?ids={ids}", second.getId() + "," + first.getId() + "," + (second.getId() + 1000)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.posts.length()", is(2)))
+                .andExpect(jsonPath("$.posts[0].id").value(second.getId()))
+                .andExpect(jsonPath("$.posts[0].title").value("두 번째"))
+                .andExpect(jsonPath("$.posts[1].id").value(first.getId()))
+                .andExpect(jsonPath("$.missing[0]").value(second.getId() + 1000))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 한개 조회 - 조회수는 ETag 에 들어가지 않아서 weak ETag 를 준다")
+    public void test32() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+
+        mockMvc.perform(get("/posts/{postId}", post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ETAG, "W/\"" + post.getId() + "-0\""));
+
+        // expected
+        mockMvc.perform(get("/posts/{postId}", post.getId())
+                        .header(IF_NONE_MATCH, "\"" + post.getId() + "-0\""))
+                .andExpect(status().isNotModified())
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("글 한개 조회 - 다른 인스턴스나 SQL 로 넣은 글도 id 필터 때문에 404 가 되지 않는다")
+    public void test33() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+        long above = post.getId() + 1_000;
+        // 아는 가장 큰 id 보다 작지만 이 인스턴스는 본 적 없는 id. (시퀀스는 1 부터 준다)
+        long below = 0;
+
+        // when
+        insertWithSql(above);
+        insertWithSql(below);
+
+        // expected
+        mockMvc.perform(get("/posts/{postId}", above))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/posts/{postId}", below))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("SQL 로 넣은 글"))
+                .andDo(print());
+    }
+
+    private void insertWithSql(long id) {
+        jdbcTemplate.update("insert into post (id, title, content, version, views) values (?, ?, ?, 0, 0)",
+                id, "SQL 로 넣은 글", "내용");
+    }
+}
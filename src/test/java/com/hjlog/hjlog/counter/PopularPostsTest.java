@@ -0,0 +1,185 @@
+package com.hjlog.hjlog.counter;
+
+import com.hjlog.hjlog.event.PostChangedEvent;
+import com.hjlog.hjlog.response.PostPopularResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopularPostsTest {
+
+    private static final int POSTS = 100_000;
+    private static final int READS = 500_000;
+    private static final int TOP = 10;
+
+    @Test
+    @DisplayName("치우친 조회 분포에서 sketch 가 넓을수록 추정 오차가 줄고, 상위 글은 정확히 찾는다")
+    void test1() {
+        // given
+        long[] reads = zipf(POSTS, 1.1, READS, new Random(42));
+        long[] exact = new long[POSTS + 1];
+        for (long id : reads) {
+            exact[(int) id]++;
+        }
+        List<Long> expectedTop = IntStream.rangeClosed(1, POSTS).boxed()
+                .sorted((a, b) -> Long.compare(exact[b], exact[a]))
+                .limit(TOP)
+                .map(Long::valueOf)
+                .collect(Collectors.toList());
+
+        double previousError = Double.MAX_VALUE;
+        for (int width : new int[]{256, 1024, 4096}) {
+            PopularPosts popularPosts = new PopularPosts(Duration.ofMinutes(1), 1, 4, width, 100, () -> 0L);
+
+            // when
+            for (long id : reads) {
+                popularPosts.record(id);
+            }
+            List<PostPopularResponse.Item> top = popularPosts.top(Duration.ofMinutes(1), TOP).getPosts();
+
+            // then
+            long hits = top.stream().filter(item -> expectedTop.contains(item.getId())).count();
+            double error = top.stream()
+                    .mapToDouble(item -> item.getViews() - exact[item.getId().intValue()])
+                    .average()
+                    .orElseThrow();
+            top.forEach(item -> assertTrue(item.getViews() >= exact[item.getId().intValue()]));
+            assertTrue(hits >= TOP - 1);
+            assertTrue(error <= Math.E / width * READS);
+            assertTrue(error <= previousError);
+            previousError = error;
+        }
+        assertTrue(previousError < READS * 0.001);
+    }
+
+    @Test
+    @DisplayName("window 밖으로 밀려난 버킷의 조회수는 빠진다")
+    void test2() {
+        // given
+        AtomicLong now = new AtomicLong();
+        PopularPosts popularPosts = new PopularPosts(Duration.ofMinutes(1), 60, 4, 1024, 100, now::get);
+
+        for (int i = 0; i < 30; i++) {
+            popularPosts.record(1L);
+        }
+        now.addAndGet(Duration.ofMinutes(30).toMillis());
+        for (int i = 0; i < 20; i++) {
+            popularPosts.record(2L);
+        }
+
+        // when
+        PostPopularResponse lastHour = popularPosts.top(Duration.ofHours(1), 10);
+        PostPopularResponse lastTenMinutes = popularPosts.top(Duration.ofMinutes(10), 10);
+        now.addAndGet(Duration.ofMinutes(45).toMillis());
+        PostPopularResponse later = popularPosts.top(Duration.ofHours(1), 10);
+
+        // then
+        assertEquals("PT1H", lastHour.getWindow());
+        assertEquals(List.of(1L, 2L), ids(lastHour));
+        assertEquals(30, lastHour.getPosts().get(0).getViews());
+        assertEquals(List.of(2L), ids(lastTenMinutes));
+        assertEquals(List.of(2L), ids(later));
+    }
+
+    @Test
+    @DisplayName("글이 아무리 많아도 메모리는 버킷 수와 sketch 크기로 고정된다")
+    void test3() {
+        // given
+        PopularPosts popularPosts = new PopularPosts(Duration.ofMinutes(1), 60, 4, 1024, 100, () -> 0L);
+        long before = popularPosts.memoryBytes();
+
+        // when
+        for (long id = 1; id <= 1_000_000; id++) {
+            popularPosts.record(id);
+        }
+
+        // then
+        assertEquals(60L * 4 * 1024 * Long.BYTES, before);
+        assertEquals(before, popularPosts.memoryBytes());
+        assertEquals(10, popularPosts.top(Duration.ofMinutes(1), 10).getPosts().size());
+    }
+
+    @Test
+    @DisplayName("지운 글은 window 가 지나기 전에도 순위에서 빠진다")
+    void test4() {
+        // given
+        PopularPosts popularPosts = new PopularPosts(Duration.ofMinutes(1), 60, 4, 1024, 100, () -> 0L);
+        for (int i = 0; i < 30; i++) {
+            popularPosts.record(1L);
+        }
+        for (int i = 0; i < 20; i++) {
+            popularPosts.record(2L);
+        }
+
+        // when
+        popularPosts.onPostChanged(PostChangedEvent.deleted(1L));
+
+        // then
+        assertEquals(List.of(2L), ids(popularPosts.top(Duration.ofHours(1), 10)));
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 기록해도 조회수를 잃지 않는다")
+    void test5() throws Exception {
+        // given
+        PopularPosts popularPosts = new PopularPosts(Duration.ofMinutes(1), 60, 4, 4096, 100, () -> 0L);
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // when
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < perThread; i++) {
+                    popularPosts.record(i % 2 == 0 ? 1L : 2L + random.nextInt(POSTS));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // then
+        PostPopularResponse.Item first = popularPosts.top(Duration.ofMinutes(1), 1).getPosts().get(0);
+        assertEquals(1L, first.getId());
+        assertTrue(first.getViews() >= threads * perThread / 2, "views " + first.getViews());
+    }
+
+    private static List<Long> ids(PostPopularResponse response) {
+        return response.getPosts().stream()
+                .map(PostPopularResponse.Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 1..n 에서 순위 k 가 1 / k^s 에 비례하도록 뽑는다.
+     * */
+    private static long[] zipf(int n, double s, int count, Random random) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1 / Math.pow(k, s);
+            cdf[k - 1] = sum;
+        }
+
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            samples[i] = (index >= 0 ? index : -index - 1) + 1;
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,94 @@
+package com.hjlog.hjlog.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica";
+
+    private final FlakyDataSource replica = new FlakyDataSource(REPLICA_URL);
+    private final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+            new DriverManagerDataSource(PRIMARY_URL, "sa", ""),
+            Map.of("replica-0", replica),
+            Duration.ofHours(1),
+            Duration.ofSeconds(1));
+
+    @AfterEach
+    void close() {
+        routing.close();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("읽기 전용 트랜잭션만 복제본으로 보내고, PrimaryOnly 안에서는 primary 로 보낸다")
+    void test1() throws Exception {
+        // expected
+        assertEquals(PRIMARY_URL, url());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(REPLICA_URL, url());
+
+        try (PrimaryOnly ignored = PrimaryOnly.begin()) {
+            assertEquals(PRIMARY_URL, url());
+        }
+        assertEquals(REPLICA_URL, url());
+    }
+
+    @Test
+    @DisplayName("커넥션을 못 주는 복제본은 빼고 primary 에서 읽다가, 검사를 통과하면 다시 넣는다")
+    void test2() throws Exception {
+        // given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        replica.down = true;
+
+        // when
+        String fallback = url();
+        routing.checkHealth();
+        List<String> whileDown = routing.getHealthyReplicas();
+
+        replica.down = false;
+        routing.checkHealth();
+
+        // then
+        assertEquals(PRIMARY_URL, fallback);
+        assertEquals(List.of(), whileDown);
+        assertEquals(List.of("replica-0"), routing.getHealthyReplicas());
+        assertEquals(REPLICA_URL, url());
+    }
+
+    private String url() throws SQLException {
+        try (Connection connection = routing.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private static class FlakyDataSource extends DriverManagerDataSource {
+
+        private volatile boolean down;
+
+        FlakyDataSource(String url) {
+            super(url, "sa", "");
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("replica is down");
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.hjlog.hjlog.datasource;
+
+import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.request.PostCreate;
+import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.PostSummaryResponse;
+import com.hjlog.hjlog.service.PostService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.servlet.http.Cookie;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * primary 와 복제본을 서로 다른 H2 인메모리 DB 로 띄운다. 복제는 하지 않으므로 어느 쪽에서 읽었는지 내용으로 구분한다.
+ * */
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "hjlog.datasource.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+        "hjlog.datasource.replicas[0].username=sa",
+        "hjlog.datasource.sticky-window=1m"
+})
+class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:hjlog-primary";
+    static final String REPLICA_URL = "jdbc:h2:mem:hjlog-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @BeforeEach
+    void copySchema() throws Exception {
+        postRepository.deleteAll();
+
+        List<String> ddl = new ArrayList<>();
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             ResultSet script = primary.createStatement().executeQuery("SCRIPT NODATA")) {
+            while (script.next()) {
+                ddl.add(script.getString(1));
+            }
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : ddl) {
+                statement.execute(sql);
+            }
+            statement.execute("INSERT INTO post (id, title, content, version, views) VALUES (1, '복제본 글', '복제본 내용', 0, 0)");
+        }
+    }
+
+    @Test
+    @DisplayName("쓰기는 primary 로, 읽기 전용 조회는 복제본으로 간다")
+    void test1() {
+        // given
+        postService.write(PostCreate.builder()
+                .title("원본 글")
+                .content("원본 내용")
+                .build());
+
+        // when
+        List<String> fromReplica = titles(postService.getList(PostSearch.builder().build()));
+        List<String> fromPrimary;
+        try (PrimaryOnly ignored = PrimaryOnly.begin()) {
+            fromPrimary = titles(postService.getList(PostSearch.builder().build()));
+        }
+
+        // then
+        assertEquals(List.of("복제본 글"), fromReplica);
+        assertEquals(List.of("원본 글"), fromPrimary);
+    }
+
+    @Test
+    @DisplayName("글을 쓴 클라이언트는 잠시 동안 primary 에서 읽어서 방금 쓴 글을 본다")
+    void test2() throws Exception {
+        // when
+        Cookie sticky = mockMvc.perform(post("/posts")
+                        .contentType(APPLICATION_JSON)
+                        .content("{\"title\": \"방금 쓴 글\", \"content\": \"내용\"}"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists(ReadYourWritesFilter.COOKIE))
+                .andReturn()
+                .getResponse()
+                .getCookie(ReadYourWritesFilter.COOKIE);
+
+        // expected
+        mockMvc.perform(get("/posts?cursor=").cookie(sticky))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.posts[*].title", contains("방금 쓴 글")));
+
+        mockMvc.perform(get("/posts?cursor="))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.posts[*].title", contains("복제본 글")));
+    }
+
+    private static List<String> titles(List<PostSummaryResponse> posts) {
+        return posts.stream()
+                .map(PostSummaryResponse::getTitle)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,87 @@
+package com.hjlog.hjlog.moderation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BannedWordMatcherTest {
+
+    @Test
+    @DisplayName("겹치거나 다른 금지어 안에 들어있는 금지어도 찾는다")
+    void test1() {
+        // given
+        BannedWordMatcher matcher = BannedWordMatcher.of(List.of("he", "she", "his", "hers", "바보"));
+
+        // expected
+        assertEquals("she", matcher.findFirst("ushers"));
+        assertEquals("his", matcher.findFirst("this"));
+        assertEquals("바보", matcher.findFirst("나는 바보다"));
+        assertNull(matcher.findFirst("hallo world"));
+        assertNull(matcher.findFirst(null));
+    }
+
+    @Test
+    @DisplayName("영문은 대소문자를 구분하지 않는다")
+    void test2() {
+        // given
+        BannedWordMatcher matcher = BannedWordMatcher.of(List.of("Spam"));
+
+        // expected
+        assertEquals("Spam", matcher.findFirst("BUY SPAM NOW"));
+    }
+
+    @Test
+    @DisplayName("사전이 비어있으면 아무것도 찾지 않는다")
+    void test3() {
+        // expected
+        assertNull(BannedWordMatcher.of(List.of()).findFirst("바보"));
+        assertNull(BannedWordMatcher.of(List.of("  ")).findFirst("바보"));
+    }
+
+    @Test
+    @DisplayName("받침에 맞춰 을/를 을 붙인다")
+    void test4() {
+        // expected
+        assertEquals("제목에 바보를 포함할 수 없습니다.", BannedWordMatcher.message("제목", "바보"));
+        assertEquals("내용에 멍청이를 포함할 수 없습니다.", BannedWordMatcher.message("내용", "멍청이"));
+        assertEquals("내용에 욕설을 포함할 수 없습니다.", BannedWordMatcher.message("내용", "욕설"));
+    }
+
+    @Test
+    @DisplayName("사전 파일이 바뀌면 재시작 없이 다시 읽는다")
+    void test5(@TempDir Path dir) throws Exception {
+        // given
+        Path file = dir.resolve("banned-words.txt");
+        Files.writeString(file, "# 주석\n바보\n", StandardCharsets.UTF_8);
+        BannedWords bannedWords = new BannedWords(new FileSystemResource(file), Duration.ofMillis(20));
+
+        try {
+            assertEquals("바보", bannedWords.current().findFirst("나는 바보"));
+            assertNull(bannedWords.current().findFirst("나는 멍청이"));
+
+            // when
+            Files.writeString(file, "바보\n멍청이\n", StandardCharsets.UTF_8);
+            file.toFile().setLastModified(System.currentTimeMillis() + 1_000);
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (bannedWords.current().findFirst("나는 멍청이") == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+
+            // then
+            assertEquals("멍청이", bannedWords.current().findFirst("나는 멍청이"));
+            assertEquals(2, bannedWords.current().size());
+        } finally {
+            bannedWords.shutdown();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.hjlog.hjlog.repository.log;
+
+import com.hjlog.hjlog.domain.Post;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostLogTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("다시 열면 로그를 처음부터 읽어서 수정, 조회수, 삭제까지 그대로 복구한다")
+    void test1() {
+        // given
+        PostLog postLog = new PostLog(directory, SEGMENT_SIZE, false);
+        long first = postLog.nextId();
+        long second = postLog.nextId();
+        postLog.put(first, "제목", "내용");
+        postLog.put(second, "지울 글", null);
+        postLog.update(first, 0L, "고친 제목", null);
+        postLog.addViews(Map.of(first, 5L));
+        postLog.delete(second);
+        postLog.close();
+
+        // when
+        PostLog reopened = new PostLog(directory, SEGMENT_SIZE, false);
+        Post post = reopened.read(first);
+
+        // then
+        assertEquals("고친 제목", post.getTitle());
+        assertEquals("내용", post.getContent());
+        assertEquals(1L, post.getVersion());
+        assertEquals(5L, post.getViews());
+        assertNull(reopened.read(second));
+        assertEquals(second + 1, reopened.nextId());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("crc 가 맞지 않는 레코드부터는 버리고, 그 자리에 이어서 쓴다")
+    void test2() throws Exception {
+        // given
+        PostLog postLog = new PostLog(directory, SEGMENT_SIZE, false);
+        postLog.put(1, "온전한 글", "내용");
+        postLog.put(2, "깨질 글", "내용");
+        postLog.close();
+
+        // 두 번째 레코드의 마지막 바이트를 바꿔서 쓰다가 죽은 것처럼 만든다.
+        Path segment = segments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            long end = lastRecordEnd(file);
+            file.seek(end - 1);
+            int last = file.read();
+            file.seek(end - 1);
+            file.write(last ^ 0xFF);
+        }
+
+        // when
+        PostLog recovered = new PostLog(directory, SEGMENT_SIZE, false);
+        recovered.put(3, "복구 뒤 글", "내용");
+        recovered.close();
+        PostLog reopened = new PostLog(directory, SEGMENT_SIZE, false);
+
+        // then
+        assertEquals("온전한 글", reopened.read(1).getTitle());
+        assertNull(reopened.read(2));
+        assertEquals("복구 뒤 글", reopened.read(3).getTitle());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("compaction 은 지난 수정과 삭제 레코드를 버리고 세그먼트를 줄이며, 다시 열어도 같은 상태다")
+    void test3() throws Exception {
+        // given
+        PostLog postLog = new PostLog(directory, SEGMENT_SIZE, false);
+        for (long id = 1; id <= 20; id++) {
+            postLog.put(postLog.nextId(), "제목 " + id, "내용 ".repeat(10));
+        }
+        for (int round = 0; round < 10; round++) {
+            for (long id = 1; id <= 20; id++) {
+                postLog.update(id, null, "제목 " + id + " - " + round, null);
+            }
+        }
+        for (long id = 11; id <= 20; id++) {
+            postLog.delete(id);
+        }
+        int before = postLog.segmentCount();
+
+        // when
+        int removed = postLog.compact(0.5);
+        int after = postLog.segmentCount();
+        postLog.close();
+        PostLog reopened = new PostLog(directory, SEGMENT_SIZE, false);
+
+        // then
+        assertTrue(removed > 0);
+        assertTrue(after < before, "before=" + before + ", after=" + after);
+        assertEquals(after, segments().size());
+        assertEquals(10, reopened.index().size());
+        for (long id = 1; id <= 10; id++) {
+            Post post = reopened.read(id);
+            assertEquals("제목 " + id + " - 9", post.getTitle());
+            assertEquals(10L, post.getVersion());
+        }
+        for (long id = 11; id <= 20; id++) {
+            assertNull(reopened.read(id));
+        }
+        assertEquals(21, reopened.nextId());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("compaction 은 PUT 이 다른 세그먼트에 있는 글의 조회수를 잃지 않는다")
+    void test4() throws Exception {
+        // given
+        // 첫 세그먼트는 살아있는 글로 채워서 compaction 대상이 아니게 한다.
+        PostLog postLog = new PostLog(directory, SEGMENT_SIZE, false);
+        for (long id = 1; id <= 30; id++) {
+            postLog.put(id, "제목 " + id, "내용 ".repeat(20));
+        }
+        for (int i = 0; i < 400; i++) {
+            postLog.addViews(Map.of(1L, 1L));
+        }
+        for (int i = 0; i < 400; i++) {
+            postLog.addViews(Map.of(2L, 1L));
+        }
+        int before = postLog.segmentCount();
+
+        // when
+        postLog.compact(0.5);
+        int after = postLog.segmentCount();
+        postLog.close();
+        PostLog reopened = new PostLog(directory, SEGMENT_SIZE, false);
+
+        // then
+        assertTrue(after < before, "before=" + before + ", after=" + after);
+        assertEquals(400L, reopened.read(1).getViews());
+        assertEquals(400L, reopened.read(2).getViews());
+        assertEquals("제목 1", reopened.read(1).getTitle());
+        reopened.close();
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * [crc 4][length 4][본문] 을 따라가서 마지막 레코드가 끝나는 위치를 찾는다.
+     * */
+    private static long lastRecordEnd(RandomAccessFile file) throws Exception {
+        long offset = 0;
+        while (true) {
+            file.seek(offset + 4);
+            int length = file.readInt();
+            if (length == 0) {
+                return offset;
+            }
+            offset += 8 + length;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.hjlog.hjlog.repository.shard;
+
+import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.domain.PostEditor;
+import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.PostExportResponse;
+import com.hjlog.hjlog.response.PostSummaryResponse;
+import com.hjlog.hjlog.response.ShardRebalanceResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedPostRepositoryTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final List<DataSource> shards = IntStream.range(0, 3)
+            .mapToObj(i -> (DataSource) new DriverManagerDataSource(
+                    "jdbc:h2:mem:shard-" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1", "sa", ""))
+            .collect(Collectors.toList());
+    private final List<ShardedPostRepository> repositories = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        repositories.forEach(ShardedPostRepository::close);
+        shards.forEach(shard -> new JdbcTemplate(shard).execute("DROP ALL OBJECTS"));
+    }
+
+    @Test
+    @DisplayName("id 는 여러 스레드에서 만들어도 겹치지 않고, JavaScript 가 정확히 다룰 수 있는 범위 안에 있다")
+    void test1() throws Exception {
+        // given
+        PostIdGenerator generator = new PostIdGenerator(3);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 50_000; j++) {
+                    ids.add(generator.next());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // then
+        assertEquals(200_000, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id > 0 && id < (1L << 53)));
+    }
+
+    @Test
+    @DisplayName("글은 모든 샤드에 나뉘고, id 하나로 하는 조회와 수정과 삭제는 그 글의 샤드에서만 일어난다")
+    void test2() {
+        // given
+        ShardedPostRepository repository = repository(3, 0);
+        List<Post> posts = repository.saveAll(posts(30));
+        Post post = posts.get(7);
+        int shard = repository.getRouter().shardOf(post.getId());
+
+        // when
+        long updated = repository.update(post.getId(), 0L, PostEditor.builder().title("수정").build());
+        long stale = repository.update(post.getId(), 0L, PostEditor.builder().title("늦은 수정").build());
+
+        // then
+        assertTrue(IntStream.range(0, 3).allMatch(i -> countOn(i) > 0));
+        assertEquals(30, repository.count());
+        assertEquals(1, updated);
+        assertEquals(0, stale);
+        assertEquals("수정", repository.findById(post.getId()).orElseThrow().getTitle());
+        assertEquals(1L, repository.getVersion(post.getId()));
+        assertEquals(1, new JdbcTemplate(shards.get(shard))
+                .queryForObject("select count(*) from post where id = ?", Integer.class, post.getId()));
+
+        assertEquals(1, repository.remove(post.getId()));
+        assertTrue(repository.findById(post.getId()).isEmpty());
+        assertEquals(29, repository.count());
+    }
+
+    @Test
+    @DisplayName("목록은 모든 샤드의 결과를 id 역순으로 합쳐서 offset 과 cursor 페이지를 만든다")
+    void test3() {
+        // given
+        ShardedPostRepository repository = repository(3, 0);
+        List<Long> ids = repository.saveAll(posts(50)).stream()
+                .map(Post::getId)
+                .sorted(Comparator.reverseOrder())
+                .collect(Collectors.toList());
+
+        // when
+        List<PostSummaryResponse> page2 = repository.getList(PostSearch.builder().page(2).size(10).build());
+        List<PostSummaryResponse> afterCursor = repository.getList(PostSearch.builder()
+                .cursor(PostSearch.encodeCursor(ids.get(44)))
+                .size(10)
+                .build());
+        List<Long> exported;
+        try (Stream<PostExportResponse> stream = repository.streamAll(ids.get(10))) {
+            exported = stream.map(PostExportResponse::getId).collect(Collectors.toList());
+        }
+
+        // then
+        assertEquals(ids.subList(10, 20), page2.stream().map(PostSummaryResponse::getId).collect(Collectors.toList()));
+        assertEquals(ids.subList(45, 50), afterCursor.stream().map(PostSummaryResponse::getId).collect(Collectors.toList()));
+        List<Long> ascending = new ArrayList<>(ids.subList(0, 10));
+        ascending.sort(Comparator.naturalOrder());
+        assertEquals(ascending, exported);
+    }
+
+    @Test
+    @DisplayName("샤드를 늘리면 옮기기 전에도 예전 자리에서 찾고, rebalance 는 새 샤드로 갈 글만 옮긴다")
+    void test4() {
+        // given
+        List<Long> ids = repository(2, 0).saveAll(posts(300)).stream()
+                .map(Post::getId)
+                .collect(Collectors.toList());
+        assertEquals(0, countOn(2));
+
+        ShardedPostRepository grown = repository(3, 2);
+        ShardRebalancer rebalancer = new ShardRebalancer(grown);
+
+        // when
+        boolean foundBefore = ids.stream().allMatch(id -> grown.findById(id).isPresent());
+        ShardRebalanceResponse first = rebalancer.rebalance();
+        ShardRebalanceResponse second = rebalancer.rebalance();
+
+        // then
+        assertTrue(foundBefore);
+        assertTrue(first.getScanned() >= 300);
+        assertEquals(countOn(2), first.getMoved());
+        assertTrue(first.getMoved() > 60 && first.getMoved() < 140, "moved " + first.getMoved());
+        assertEquals(0, second.getMoved());
+        assertEquals(300, grown.count());
+
+        ShardedPostRepository settled = repository(3, 0);
+        assertTrue(ids.stream().allMatch(id -> settled.findById(id).isPresent()));
+    }
+
+    @Test
+    @DisplayName("jump hash 는 샤드를 하나 늘릴 때 새 샤드로 갈 id 만 자리를 바꾼다")
+    void test5() {
+        // given
+        PostIdGenerator generator = new PostIdGenerator(0);
+        long[] ids = IntStream.range(0, 100_000).mapToLong(i -> generator.next()).toArray();
+
+        // when
+        long moved = 0;
+        for (long id : ids) {
+            int before = ShardRouter.jump(id, 4);
+            int after = ShardRouter.jump(id, 5);
+            if (before != after) {
+                assertEquals(4, after);
+                moved++;
+            }
+        }
+
+        // then
+        assertEquals(0.2, moved / (double) ids.length, 0.01);
+    }
+
+    @Test
+    @DisplayName("rebalance 가 새 자리에 쓰기 전에 지워진 글은 새 자리에서도 지운다")
+    void test6() {
+        // given
+        List<Long> ids = repository(2, 0).saveAll(posts(100)).stream()
+                .map(Post::getId)
+                .collect(Collectors.toList());
+
+        // 새 샤드에 처음 연결할 때, 그리로 갈 글을 사용자가 지운 것처럼 만든다.
+        AtomicReference<Runnable> beforeConnection = new AtomicReference<>();
+        List<DataSource> hooked = new ArrayList<>(shards);
+        hooked.set(2, new DelegatingDataSource(shards.get(2)) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Runnable hook = beforeConnection.getAndSet(null);
+                if (hook != null) {
+                    hook.run();
+                }
+                return super.getConnection();
+            }
+        });
+        ShardedPostRepository grown = repository(hooked, 3, 2);
+        List<Long> deleted = ids.stream()
+                .filter(id -> grown.getRouter().shardOf(id) == 2)
+                .collect(Collectors.toList());
+        beforeConnection.set(() -> deleted.forEach(grown::remove));
+
+        // when
+        new ShardRebalancer(grown).rebalance();
+
+        // then
+        assertFalse(deleted.isEmpty());
+        assertEquals(0, countOn(2));
+        assertEquals(100 - deleted.size(), grown.count());
+        assertTrue(deleted.stream().noneMatch(id -> grown.findById(id).isPresent()));
+    }
+
+    @Test
+    @DisplayName("샤드를 늘린 뒤 옮기기 전에 모은 조회수는 예전 자리의 글에 더한다")
+    void test7() {
+        // given
+        List<Long> ids = repository(2, 0).saveAll(posts(100)).stream()
+                .map(Post::getId)
+                .collect(Collectors.toList());
+        ShardedPostRepository grown = repository(3, 2);
+
+        // when
+        grown.addViews(ids.stream().collect(Collectors.toMap(id -> id, id -> 1L)));
+
+        // then
+        assertTrue(ids.stream().anyMatch(id -> grown.getRouter().shardOf(id) == 2));
+        assertTrue(ids.stream().allMatch(id -> grown.findById(id).orElseThrow().getViews() == 1L));
+    }
+
+    @Test
+    @DisplayName("멈췄던 rebalance 를 다시 돌려도 새 자리의 사본에 쌓인 수정, 조회수, 삭제를 덮어쓰지 않는다")
+    void test8() {
+        // given
+        List<Post> posts = repository(2, 0).saveAll(posts(100));
+        ShardedPostRepository grown = repository(3, 2);
+        List<Post> moving = posts.stream()
+                .filter(post -> grown.getRouter().shardOf(post.getId()) == 2)
+                .collect(Collectors.toList());
+
+        // 사본만 쓰고 원래 샤드에서 지우기 전에 멈춘 것처럼 만든다.
+        JdbcTemplate target = new JdbcTemplate(shards.get(2));
+        moving.forEach(post -> target.update(ShardedPostRepository.INSERT,
+                post.getId(), post.getTitle(), post.getContent(), post.getVersion(), post.getViews()));
+
+        Long deleted = moving.get(0).getId();
+        List<Long> edited = moving.stream().skip(1).map(Post::getId).collect(Collectors.toList());
+        edited.forEach(id -> grown.update(id, 0L, PostEditor.builder().title("새 자리 수정").build()));
+        grown.addViews(edited.stream().collect(Collectors.toMap(id -> id, id -> 5L)));
+        grown.remove(deleted);
+
+        // when
+        ShardRebalanceResponse response = new ShardRebalancer(grown).rebalance();
+
+        // then
+        assertFalse(edited.isEmpty());
+        assertEquals(edited.size(), response.getMoved());
+        assertEquals(edited.size(), countOn(2));
+        assertEquals(99, grown.count());
+        assertTrue(grown.findById(deleted).isEmpty());
+        for (Long id : edited) {
+            Post post = grown.findById(id).orElseThrow();
+            assertEquals("새 자리 수정", post.getTitle());
+            assertEquals(1L, post.getVersion());
+            assertEquals(5L, post.getViews());
+        }
+    }
+
+    private ShardedPostRepository repository(int count, int previousCount) {
+        return repository(shards, count, previousCount);
+    }
+
+    private ShardedPostRepository repository(List<DataSource> dataSources, int count, int previousCount) {
+        ShardedPostRepository repository = new ShardedPostRepository(dataSources, new ShardRouter(count, previousCount),
+                new PostIdGenerator(0), 100);
+        repository.createSchema();
+        repositories.add(repository);
+        return repository;
+    }
+
+    private int countOn(int shard) {
+        return new JdbcTemplate(shards.get(shard)).queryForObject("select count(*) from post", Integer.class);
+    }
+
+    private static List<Post> posts(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Post.builder()
+                        .title("샤드 제목 - " + i)
+                        .content("샤드 내용 - " + i)
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,142 @@
+package com.hjlog.hjlog.search;
+
+import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.request.PostCreate;
+import com.hjlog.hjlog.request.PostEdit;
+import com.hjlog.hjlog.response.PostSearchResponse;
+import com.hjlog.hjlog.service.PostService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class PostSearchIndexTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Test
+    @DisplayName("한글 검색어는 음절 bigram 으로 찾는다")
+    void test1() {
+        // given
+        Post post = write("자바스크립트 비동기 정리", "프로미스와 이벤트루프를 살펴본다.");
+
+        // when
+        PostSearchResponse response = postSearchIndex.search("이벤트루프", 0, 10);
+
+        // then
+        assertEquals(post.getId(), response.getHits().get(0).getId());
+        assertEquals("자바스크립트 비동기 정리", response.getHits().get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("검색어가 제목에 있거나 더 자주 나오는 글이 먼저 나온다")
+    void test2() {
+        // given
+        Post inContent = write("평범한 글", "오늘은 쿠버네티스 이야기를 조금 한다.");
+        Post inTitle = write("쿠버네티스 입문", "컨테이너 오케스트레이션 소개");
+        Post often = write("운영 일지", "쿠버네티스 쿠버네티스 쿠버네티스 장애 대응");
+
+        // when
+        List<PostSearchResponse.Hit> hits = postSearchIndex.search("쿠버네티스", 0, 10).getHits();
+
+        // then
+        assertEquals(3, hits.size());
+        assertEquals(Set.of(inTitle.getId(), often.getId()), Set.of(hits.get(0).getId(), hits.get(1).getId()));
+        assertEquals(inContent.getId(), hits.get(2).getId());
+        assertTrue(hits.get(1).getScore() > hits.get(2).getScore());
+    }
+
+    @Test
+    @DisplayName("수정하거나 삭제한 글은 색인에 바로 반영된다")
+    void test3() {
+        // given
+        Post post = write("Spring Boot 설정", "application.yml 정리");
+
+        // when
+        postService.edit(post.getId(), PostEdit.builder()
+                .content("Gradle multi-module 구성")
+                .build());
+
+        // then
+        assertTrue(postSearchIndex.search("application", 0, 10).getHits().stream()
+                .noneMatch(hit -> hit.getId().equals(post.getId())));
+        assertEquals(post.getId(), postSearchIndex.search("GRADLE", 0, 10).getHits().get(0).getId());
+
+        postService.delete(post.getId());
+        assertTrue(postSearchIndex.search("gradle", 0, 10).getHits().stream()
+                .noneMatch(hit -> hit.getId().equals(post.getId())));
+    }
+
+    @Test
+    @DisplayName("검색 결과를 페이지 단위로 나눈다")
+    void test4() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            write("페이징용 글 " + i, "오소리감투");
+        }
+
+        // when
+        PostSearchResponse first = postSearchIndex.search("오소리감투", 0, 2);
+        PostSearchResponse last = postSearchIndex.search("오소리감투", 4, 2);
+
+        // then
+        assertEquals(5, first.getTotal());
+        assertEquals(2, first.getHits().size());
+        assertEquals(1, last.getHits().size());
+    }
+
+    @Test
+    @DisplayName("제목만 수정해도 내용은 색인에 남고, 내용만 수정해도 제목은 남는다")
+    void test5() {
+        // given
+        Post post = write("도커 네트워크", "브리지 드라이버 살펴보기");
+
+        // when
+        postService.edit(post.getId(), PostEdit.builder()
+                .title("컨테이너 네트워크")
+                .build());
+        List<PostSearchResponse.Hit> byContent = postSearchIndex.search("브리지", 0, 10).getHits();
+
+        postService.edit(post.getId(), PostEdit.builder()
+                .content("오버레이 드라이버 살펴보기")
+                .build());
+        List<PostSearchResponse.Hit> byTitle = postSearchIndex.search("컨테이너", 0, 10).getHits();
+
+        // then
+        assertEquals(post.getId(), byContent.get(0).getId());
+        assertEquals("컨테이너 네트워크", byContent.get(0).getTitle());
+        assertEquals(post.getId(), byTitle.get(0).getId());
+        assertTrue(postSearchIndex.search("도커", 0, 10).getHits().stream()
+                .noneMatch(hit -> hit.getId().equals(post.getId())));
+        assertTrue(postSearchIndex.search("브리지", 0, 10).getHits().stream()
+                .noneMatch(hit -> hit.getId().equals(post.getId())));
+    }
+
+    private Post write(String title, String content) {
+        postService.write(PostCreate.builder()
+                .title(title)
+                .content(content)
+                .build());
+
+        return postRepository.findAll().stream()
+                .filter(post -> post.getTitle().equals(title))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,13 @@
+package com.hjlog.hjlog.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * PostServiceTest 전체를 JPA 대신 로그 저장소로 다시 돌린다.
+ * */
+@SpringBootTest(properties = {
+        "hjlog.storage.log.directory=${java.io.tmpdir}/hjlog-post-log-${random.uuid}",
+        "hjlog.storage.log.segment-size=16MB"
+})
+class LogPostServiceTest extends PostServiceTest {
+}
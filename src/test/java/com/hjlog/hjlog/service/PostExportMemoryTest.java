@@ -0,0 +1,99 @@
+package com.hjlog.hjlog.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * gradle memoryTest 로 작은 힙(-Xmx)에서 실행한다.
+ * 데이터가 힙에 올라가지 않도록 H2 를 파일 모드로 띄운다.
+ * */
+@Tag("memory")
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./build/h2/export-memory-test",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class PostExportMemoryTest {
+
+    private static final int ROWS = 50_000;
+    private static final int CONTENT_LENGTH = 4_096;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostService postService;
+
+    @BeforeEach
+    void seed() {
+        String content = "a".repeat(CONTENT_LENGTH);
+
+        List<Object[]> batch = new ArrayList<>();
+        for (long id = 1; id <= ROWS; id++) {
+            batch.add(new Object[]{id, "제목 - " + id, content});
+
+            if (batch.size() == 1_000) {
+                jdbcTemplate.batchUpdate("insert into post (id, title, content, views) values (?, ?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @AfterEach
+    void clean() {
+        jdbcTemplate.update("delete from post");
+    }
+
+    @Test
+    @DisplayName("힙보다 큰 테이블도 일정한 메모리로 내보낸다")
+    void export() throws Exception {
+        // given
+        CountingOutputStream out = new CountingOutputStream();
+
+        // when
+        long count = postService.export(null, out);
+
+        // then
+        assertEquals(ROWS, count);
+        assertEquals(ROWS, out.lines);
+        assertTrue(out.bytes > Runtime.getRuntime().maxMemory(),
+                "exported=" + out.bytes + " bytes, maxMemory=" + Runtime.getRuntime().maxMemory() + " bytes");
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
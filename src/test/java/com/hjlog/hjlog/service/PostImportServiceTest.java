@@ -0,0 +1,156 @@
+package com.hjlog.hjlog.service;
+
+import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.exception.ImportBusy;
+import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.response.PostImportResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest
+class PostImportServiceTest {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostImportService postImportService;
+
+    @BeforeEach
+    void clean() {
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("NDJSON import - 잘못된 줄은 이유와 함께 건너뛴다")
+    void test1() {
+        // given
+        InputStream body = ndjson(
+                "{\"title\":\"제목 - 1\",\"content\":\"내용 - 1\"}",
+                "{\"title\":",
+                "{\"content\":\"내용 - 3\"}",
+                "",
+                "{\"title\":\"나는 바보\",\"content\":\"내용 - 5\"}",
+                "{\"title\":\"제목 - 6\",\"content\":\"내용 - 6\"}");
+
+        // when
+        PostImportResponse response = postImportService.importPosts(body, 1);
+
+        // then
+        assertTrue(response.isCompleted());
+        assertEquals(2, response.getAccepted());
+        assertEquals(3, response.getRejected());
+        assertEquals(6, response.getLastCommittedLine());
+
+        List<PostImportResponse.Rejection> rejections = response.getRejections();
+        assertEquals(2, rejections.get(0).getLine());
+        assertEquals("JSON 형식이 올바르지 않습니다.", rejections.get(0).getValidation().get("json"));
+        assertEquals(3, rejections.get(1).getLine());
+        assertEquals("title을 입력해주세요.", rejections.get(1).getValidation().get("title"));
+        assertEquals(5, rejections.get(2).getLine());
+        assertEquals("제목에 바보를 포함할 수 없습니다.", rejections.get(2).getValidation().get("title"));
+
+        List<String> titles = postRepository.findAll().stream()
+                .map(Post::getTitle)
+                .collect(Collectors.toList());
+        assertEquals(List.of("제목 - 1", "제목 - 6"), titles);
+    }
+
+    @Test
+    @DisplayName("NDJSON import - chunk 크기보다 많은 글도 모두 저장한다")
+    void test2() {
+        // given
+        String[] lines = IntStream.rangeClosed(1, 1_234)
+                .mapToObj(i -> "{\"title\":\"제목 - " + i + "\",\"content\":\"내용 - " + i + "\"}")
+                .toArray(String[]::new);
+
+        // when
+        PostImportResponse response = postImportService.importPosts(ndjson(lines), 1);
+
+        // then
+        assertTrue(response.isCompleted());
+        assertEquals(1_234, response.getAccepted());
+        assertEquals(1_234, response.getLastCommittedLine());
+        assertEquals(1_234L, postRepository.count());
+    }
+
+    @Test
+    @DisplayName("NDJSON import - fromLine 부터 이어서 가져온다")
+    void test3() {
+        // given
+        InputStream body = ndjson(
+                "{\"title\":\"제목 - 1\",\"content\":\"내용 - 1\"}",
+                "{\"title\":\"제목 - 2\",\"content\":\"내용 - 2\"}",
+                "{\"title\":\"제목 - 3\",\"content\":\"내용 - 3\"}");
+
+        // when
+        PostImportResponse response = postImportService.importPosts(body, 3);
+
+        // then
+        assertTrue(response.isCompleted());
+        assertEquals(1, response.getAccepted());
+        assertEquals(3, response.getLastCommittedLine());
+        assertEquals("제목 - 3", postRepository.findAll().get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("NDJSON import - 동시에 도는 import 가 max-concurrent 개면 다음 요청은 거절한다")
+    void test4() throws Exception {
+        // given
+        CountDownLatch reading = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<PostImportResponse>> running = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            InputStream body = new InputStream() {
+                @Override
+                public int read() {
+                    return -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    reading.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return -1;
+                }
+            };
+            running.add(CompletableFuture.supplyAsync(() -> postImportService.importPosts(body, 1)));
+        }
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+
+        // expected
+        assertThrows(ImportBusy.class, () -> postImportService.importPosts(ndjson("{\"title\":\"제목\",\"content\":\"내용\"}"), 1));
+
+        release.countDown();
+        for (CompletableFuture<PostImportResponse> future : running) {
+            assertTrue(future.get(5, TimeUnit.SECONDS).isCompleted());
+        }
+        assertTrue(postImportService.importPosts(ndjson("{\"title\":\"제목\",\"content\":\"내용\"}"), 1).isCompleted());
+    }
+
+    private InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,24 +1,46 @@
 package com.hjlog.hjlog.service;
 
+import com.hjlog.hjlog.cache.PostCache;
+import com.hjlog.hjlog.cache.PostIdFilter;
+import com.hjlog.hjlog.counter.PostViewCounter;
 import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.exception.InvalidRequest;
 import com.hjlog.hjlog.exception.PostNotFound;
 import com.hjlog.hjlog.repository.PostRepository;
 import com.hjlog.hjlog.request.PostCreate;
 import com.hjlog.hjlog.request.PostEdit;
 import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.PostBatchResponse;
+import com.hjlog.hjlog.response.PostCursorResponse;
+import com.hjlog.hjlog.response.PostLookupResponse;
 import com.hjlog.hjlog.response.PostResponse;
+import com.hjlog.hjlog.response.PostSummaryResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
+import static com.hjlog.hjlog.sql.SqlAssertions.assertStatementsAtMost;
 import static org.junit.jupiter.api.Assertions.*;
 
+@ActiveProfiles("test")
 @SpringBootTest
 class PostServiceTest {
 
@@ -28,6 +50,15 @@ class PostServiceTest {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private PostIdFilter postIdFilter;
+
+    @Autowired
+    private PostViewCounter postViewCounter;
+
     @BeforeEach
     void clean() {
         postRepository.deleteAll();
@@ -91,7 +122,7 @@ class PostServiceTest {
                 .build();
 
         // when
-        List<PostResponse> posts = postService.getList(postSearch);
+        List<PostSummaryResponse> posts = postService.getList(postSearch);
 
         // then
         assertEquals(20, posts.size());
@@ -217,4 +248,446 @@ class PostServiceTest {
             postService.edit(requestPost.getId() + 1L, postEdit);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("글 커서 페이지 조회")
+    public void test10() {
+        // given
+        List<Post> requestPosts = IntStream.range(1, 31)
+                .mapToObj(i -> Post.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .build())
+                .collect(Collectors.toList());
+        postRepository.saveAll(requestPosts);
+
+        // when
+        PostCursorResponse first = postService.getCursorList(PostSearch.builder()
+                .cursor("")
+                .build());
+        PostCursorResponse second = postService.getCursorList(PostSearch.builder()
+                .cursor(first.getNextCursor())
+                .build());
+
+        // then
+        assertEquals(20, first.getPosts().size());
+        assertEquals("제목 - 30", first.getPosts().get(0).getTitle());
+        assertNotNull(first.getNextCursor());
+
+        assertEquals(10, second.getPosts().size());
+        assertEquals("제목 - 10", second.getPosts().get(0).getTitle());
+        assertEquals("제목 - 1", second.getPosts().get(9).getTitle());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("글 커서 페이지 조회 실패 - 잘못된 커서")
+    public void test11() {
+        PostSearch postSearch = PostSearch.builder()
+                .cursor("!!")
+                .build();
+
+        // expected
+        assertThrows(InvalidRequest.class, () -> postService.getCursorList(postSearch));
+    }
+
+    @Test
+    @DisplayName("글 커서 페이지 조회 - 페이지 깊이와 무관하게 응답 시간이 일정하다")
+    public void test12() {
+        // given
+        List<Post> requestPosts = IntStream.range(0, 20000)
+                .mapToObj(i -> Post.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .build())
+                .collect(Collectors.toList());
+        postRepository.saveAll(requestPosts);
+
+        long newestId = requestPosts.get(requestPosts.size() - 1).getId();
+        long oldestId = requestPosts.get(0).getId();
+
+        PostSearch shallow = PostSearch.builder()
+                .cursor(PostSearch.encodeCursor(newestId + 1))
+                .build();
+        PostSearch deep = PostSearch.builder()
+                .cursor(PostSearch.encodeCursor(oldestId + 20))
+                .build();
+
+        // when
+        long shallowNanos = medianNanos(() -> postService.getCursorList(shallow));
+        long deepNanos = medianNanos(() -> postService.getCursorList(deep));
+
+        // then
+        assertEquals("제목 - 0", postService.getCursorList(deep).getPosts().get(19).getTitle());
+        assertTrue(deepNanos < shallowNanos * 3 + 2_000_000L,
+                "shallow=" + shallowNanos + "ns, deep=" + deepNanos + "ns");
+    }
+
+    private long medianNanos(Runnable runnable) {
+        for (int i = 0; i < 20; i++) {
+            runnable.run();
+        }
+
+        long[] samples = new long[31];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            runnable.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    @Test
+    @DisplayName("글 목록 조회시 내용은 앞부분만 잘라서 가져온다")
+    public void test13() {
+        // given
+        String longContent = "가".repeat(PostSummaryResponse.EXCERPT_LENGTH * 50);
+        postRepository.save(Post.builder()
+                .title("foo")
+                .content(longContent)
+                .build());
+
+        // when
+        List<PostSummaryResponse> posts = postService.getList(PostSearch.builder().build());
+
+        // then
+        assertEquals(1, posts.size());
+        assertEquals("foo", posts.get(0).getTitle());
+        assertEquals(longContent.substring(0, PostSummaryResponse.EXCERPT_LENGTH), posts.get(0).getContent());
+    }
+
+    @Test
+    @DisplayName("글 한개 조회 - 수정하면 캐시가 무효화된다")
+    public void test14() {
+        // given
+        Post requestPost = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+        postService.get(requestPost.getId());
+
+        // when
+        postService.edit(requestPost.getId(), PostEdit.builder()
+                .title("foo2")
+                .build());
+
+        // then
+        assertEquals("foo2", postService.get(requestPost.getId()).getTitle());
+    }
+
+    @Test
+    @DisplayName("글 한개 조회 - 삭제하면 캐시가 무효화된다")
+    public void test15() {
+        // given
+        Post requestPost = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+        postService.get(requestPost.getId());
+
+        // when
+        postService.delete(requestPost.getId());
+
+        // then
+        assertThrows(PostNotFound.class, () -> postService.get(requestPost.getId()));
+    }
+
+    @Test
+    @DisplayName("글 한개 조회 - 같은 글을 동시에 조회해도 DB 조회는 한 번만 일어난다")
+    public void test16() throws Exception {
+        // given
+        Post requestPost = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+        long loadsBefore = postCache.stats().loadCount();
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        List<Future<PostResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return postService.get(requestPost.getId());
+            }));
+        }
+        start.countDown();
+
+        // then
+        for (Future<PostResponse> future : futures) {
+            assertEquals("foo", future.get(10, TimeUnit.SECONDS).getTitle());
+        }
+        executor.shutdown();
+        assertEquals(1, postCache.stats().loadCount() - loadsBefore);
+    }
+
+    @Test
+    @DisplayName("글 여러개 한번에 작성 - 잘못된 글은 제외하고 항목별 오류를 알려준다")
+    public void test17() {
+        // given
+        List<PostCreate> postCreates = List.of(
+                PostCreate.builder().title("제목 - 1").content("내용 - 1").build(),
+                PostCreate.builder().content("내용 - 2").build(),
+                PostCreate.builder().title("나는 바보").content("내용 - 3").build(),
+                PostCreate.builder().title("제목 - 4").content("내용 - 4").build());
+
+        // when
+        PostBatchResponse response = postService.writeAll(postCreates);
+
+        // then
+        assertEquals(2, response.getAccepted());
+        assertEquals(2, response.getRejected());
+        assertEquals(1, response.getErrors().get(0).getIndex());
+        assertEquals("title을 입력해주세요.", response.getErrors().get(0).getValidation().get("title"));
+        assertEquals(2, response.getErrors().get(1).getIndex());
+        assertEquals("제목에 바보를 포함할 수 없습니다.", response.getErrors().get(1).getValidation().get("title"));
+        assertEquals(2L, postRepository.count());
+    }
+
+    @Test
+    @DisplayName("글 여러개 한번에 작성 - 빈 요청은 허용하지 않는다")
+    public void test18() {
+        // expected
+        assertThrows(InvalidRequest.class, () -> postService.writeAll(Collections.emptyList()));
+    }
+
+    @Test
+    @DisplayName("글 여러개 한번에 작성 - 한 건씩 INSERT 하지 않고 묶어서 저장한다")
+    public void test19() {
+        // given
+        int count = 2000;
+        List<PostCreate> postCreates = IntStream.range(0, count)
+                .mapToObj(i -> PostCreate.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .build())
+                .collect(Collectors.toList());
+
+        // when
+        // JDBC batch 는 한 번에 한 문장으로 센다. 처리량 비교는 PostServiceBenchmark 에서 한다.
+        PostBatchResponse response = assertStatementsAtMost(count / 20, () -> postService.writeAll(postCreates));
+
+        // then
+        assertEquals(count, response.getAccepted());
+        assertEquals(count, postRepository.count());
+    }
+
+    @Test
+    @DisplayName("글 내보내기 - sinceId 이후의 글만 한 줄에 하나씩 내보낸다")
+    public void test20() throws Exception {
+        // given
+        List<Post> requestPosts = IntStream.range(1, 6)
+                .mapToObj(i -> Post.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .build())
+                .collect(Collectors.toList());
+        postRepository.saveAll(requestPosts);
+        Long sinceId = requestPosts.get(1).getId();
+
+        // when
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = postService.export(sinceId, out);
+
+        // then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, count);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"title\":\"제목 - 3\""));
+        assertTrue(lines[2].contains("\"content\":\"내용 - 5\""));
+    }
+
+    @Test
+    @DisplayName("SQL 예산 - get, getList, edit, delete 가 정해진 수 이상의 SQL 을 실행하지 않는다")
+    void test21() {
+        // given
+        List<Post> requestPosts = IntStream.range(1, 31)
+                .mapToObj(i -> Post.builder()
+                        .title("예산 제목 - " + i)
+                        .content("예산 내용 - " + i)
+                        .build())
+                .collect(Collectors.toList());
+        postRepository.saveAll(requestPosts);
+        Long id = requestPosts.get(0).getId();
+        postCache.invalidate(id);
+
+        PostEdit postEdit = PostEdit.builder()
+                .title("예산 수정")
+                .content("예산 수정 내용")
+                .build();
+
+        // expected
+        assertStatementsAtMost(1, () -> postService.get(id));
+        assertStatementsAtMost(0, () -> postService.get(id));
+        assertStatementsAtMost(1, () -> postService.getList(PostSearch.builder().page(2).size(10).build()));
+        assertStatementsAtMost(1, () -> postService.edit(id, postEdit));
+        assertStatementsAtMost(1, () -> postService.delete(id));
+    }
+
+    @Test
+    @DisplayName("없는 글 조회 - id 필터로 걸러서 SQL 을 실행하지 않는다")
+    void test22() {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("필터 제목")
+                .content("필터 내용")
+                .build());
+        Long id = post.getId();
+
+        // expected
+        assertTrue(postIdFilter.mightContain(id));
+
+        postService.delete(id);
+        assertFalse(postIdFilter.mightContain(id));
+        assertStatementsAtMost(0, () -> assertThrows(PostNotFound.class, () -> postService.get(id)));
+    }
+
+    @Test
+    @DisplayName("글 조회수 - 조회마다 올라가고 모아서 DB 에 반영된다")
+    void test23() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("조회수")
+                .content("조회수 내용")
+                .build());
+        Long id = post.getId();
+
+        // when
+        int threads = 8;
+        int perThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> IntStream.range(0, perThread).forEach(n -> postService.get(id))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        postViewCounter.flush();
+
+        // then
+        long expected = (long) threads * perThread;
+        assertEquals(expected, postRepository.findById(id).orElseThrow().getViews());
+        assertEquals(0, postViewCounter.pending(id));
+        assertEquals(expected + 1, postService.get(id).getViews());
+        assertEquals(expected + 1, postService.peek(id).getViews() + postViewCounter.pending(id));
+    }
+
+    @Test
+    @DisplayName("글 조회수 - 종료할 때 남은 조회수를 반영한다")
+    void test24() {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("종료 조회수")
+                .content("내용")
+                .build());
+        postService.get(post.getId());
+        postService.get(post.getId());
+
+        // when
+        postViewCounter.stop();
+        postViewCounter.start();
+
+        // then
+        assertEquals(2, postRepository.findById(post.getId()).orElseThrow().getViews());
+    }
+
+    @Test
+    @DisplayName("여러 글을 요청한 순서대로 읽고, 캐시에 없는 글만 한 번의 쿼리로 가져온다")
+    void test25() {
+        // given
+        List<Post> posts = postRepository.saveAll(IntStream.range(1, 5)
+                .mapToObj(i -> Post.builder()
+                        .title("묶음 제목 - " + i)
+                        .content("묶음 내용 - " + i)
+                        .build())
+                .collect(Collectors.toList()));
+        Long first = posts.get(0).getId();
+        Long second = posts.get(1).getId();
+        Long third = posts.get(2).getId();
+        Long fourth = posts.get(3).getId();
+        postService.get(second);
+
+        // when
+        PostLookupResponse response = assertStatementsAtMost(1,
+                () -> postService.getAll(List.of(third, first, second, third, fourth + 1000)));
+
+        // then
+        assertEquals(List.of(third, first, second), response.getPosts().stream()
+                .map(PostResponse::getId)
+                .collect(Collectors.toList()));
+        assertEquals("묶음 제목 - 3", response.getPosts().get(0).getTitle());
+        assertEquals(List.of(fourth + 1000), response.getMissing());
+        assertEquals(2, response.getPosts().get(2).getViews());
+        assertStatementsAtMost(0, () -> postService.getAll(List.of(first, second, third)));
+        assertStatementsAtMost(1, () -> postService.getAll(List.of(first, fourth)));
+    }
+
+    @Test
+    @DisplayName("한 번에 읽을 수 있는 글 수를 넘으면 거절한다")
+    void test26() {
+        // given
+        List<Long> ids = LongStream.rangeClosed(1, 101).boxed().collect(Collectors.toList());
+
+        // expected
+        InvalidRequest e = assertThrows(InvalidRequest.class, () -> postService.getAll(ids));
+        assertEquals("한 번에 최대 100개까지 조회할 수 있습니다.", e.getValidation().get("ids"));
+    }
+
+    @Test
+    @DisplayName("글 조회수 - flush 한 뒤에도 캐시된 글을 다시 읽지 않고, 다 반영한 카운터는 지운다")
+    void test27() {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("캐시 조회수")
+                .content("내용")
+                .build());
+        Long id = post.getId();
+        postService.get(id);
+        postService.get(id);
+        postService.get(id);
+
+        // when
+        postViewCounter.flush();
+
+        // then
+        assertEquals(3, postRepository.findById(id).orElseThrow().getViews());
+        assertEquals(0, postViewCounter.size());
+        PostResponse response = assertStatementsAtMost(0, () -> postService.get(id));
+        assertEquals(4, response.getViews());
+        assertEquals(1, postViewCounter.pending(id));
+    }
+
+    @Test
+    @DisplayName("글 커서 페이지 조회 - size 가 최대 크기보다 커도 잘린 페이지 다음 커서를 준다")
+    void test28() {
+        // given
+        postRepository.saveAll(IntStream.range(0, 2_001)
+                .mapToObj(i -> Post.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .build())
+                .collect(Collectors.toList()));
+
+        // when
+        PostCursorResponse first = postService.getCursorList(PostSearch.builder()
+                .cursor("")
+                .size(3_000)
+                .build());
+        PostCursorResponse second = postService.getCursorList(PostSearch.builder()
+                .cursor(first.getNextCursor())
+                .size(3_000)
+                .build());
+
+        // then
+        assertEquals(2_000, first.getPosts().size());
+        assertNotNull(first.getNextCursor());
+        assertEquals(1, second.getPosts().size());
+        assertNull(second.getNextCursor());
+    }
+}
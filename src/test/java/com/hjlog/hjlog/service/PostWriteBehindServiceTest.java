@@ -0,0 +1,107 @@
+package com.hjlog.hjlog.service;
+
+import com.hjlog.hjlog.domain.Post;
+import com.hjlog.hjlog.exception.PostWriteNotFound;
+import com.hjlog.hjlog.exception.WriteBufferFull;
+import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.request.PostCreate;
+import com.hjlog.hjlog.response.PostWriteResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "hjlog.write-behind.enabled=true",
+        "hjlog.write-behind.linger=10ms"
+})
+class PostWriteBehindServiceTest {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostWriteBehindService postWriteBehindService;
+
+    @BeforeEach
+    void clean() {
+        postRepository.deleteAll();
+    }
+
+    @AfterEach
+    void restart() {
+        postWriteBehindService.start();
+    }
+
+    @Test
+    @DisplayName("버퍼에 넣은 글은 모아서 저장되고 DURABLE 상태가 된다")
+    void test1() throws Exception {
+        // given
+        List<PostWriteResponse> responses = IntStream.range(1, 11)
+                .mapToObj(i -> postWriteBehindService.enqueue(PostCreate.builder()
+                        .title("지연 저장 - " + i)
+                        .content("내용 - " + i)
+                        .build()))
+                .collect(Collectors.toList());
+        String lastTrackingId = responses.get(responses.size() - 1).getTrackingId();
+
+        // when
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (postWriteBehindService.getStatus(lastTrackingId).getStatus() != PostWriteResponse.Status.DURABLE
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // then
+        assertEquals(10L, postRepository.count());
+        for (PostWriteResponse response : responses) {
+            PostWriteResponse status = postWriteBehindService.getStatus(response.getTrackingId());
+            assertEquals(PostWriteResponse.Status.DURABLE, status.getStatus());
+
+            Post post = postRepository.findById(status.getPostId()).orElseThrow();
+            assertTrue(post.getTitle().startsWith("지연 저장 - "));
+        }
+    }
+
+    @Test
+    @DisplayName("멈출 때 버퍼에 남은 글을 모두 저장하고, 멈춘 뒤에는 요청을 거절한다")
+    void test2() {
+        // given
+        List<PostWriteResponse> responses = IntStream.range(1, 1001)
+                .mapToObj(i -> postWriteBehindService.enqueue(PostCreate.builder()
+                        .title("종료 전 - " + i)
+                        .content("내용 - " + i)
+                        .build()))
+                .collect(Collectors.toList());
+
+        // when
+        postWriteBehindService.stop();
+
+        // then
+        assertEquals(1000L, postRepository.count());
+        responses.forEach(response -> assertEquals(PostWriteResponse.Status.DURABLE,
+                postWriteBehindService.getStatus(response.getTrackingId()).getStatus()));
+
+        assertThrows(WriteBufferFull.class, () -> postWriteBehindService.enqueue(PostCreate.builder()
+                .title("종료 후")
+                .content("내용")
+                .build()));
+    }
+
+    @Test
+    @DisplayName("없는 trackingId 를 조회하면 에러")
+    void test3() {
+        // expected
+        assertThrows(PostWriteNotFound.class, () -> postWriteBehindService.getStatus("unknown"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.hjlog.hjlog.service;
+
+import com.hjlog.hjlog.repository.PostRepository;
+import com.hjlog.hjlog.repository.shard.ShardedPostRepository;
+import com.hjlog.hjlog.request.PostCreate;
+import com.hjlog.hjlog.request.PostEdit;
+import com.hjlog.hjlog.request.PostSearch;
+import com.hjlog.hjlog.response.PostSummaryResponse;
+import com.hjlog.hjlog.exception.PostNotFound;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "hjlog.sharding.shards[0].url=jdbc:h2:mem:hjlog-shard0",
+        "hjlog.sharding.shards[1].url=jdbc:h2:mem:hjlog-shard1",
+        "hjlog.sharding.shards[2].url=jdbc:h2:mem:hjlog-shard2"
+})
+class ShardedPostServiceTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @BeforeEach
+    void clean() {
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("샤드 저장소로 글을 쓰고, 읽고, 고치고, 지운다")
+    void test1() {
+        // given
+        IntStream.range(1, 21).forEach(i -> postService.write(PostCreate.builder()
+                .title("샤드 글 " + i)
+                .content("샤드 내용 " + i)
+                .build()));
+        List<PostSummaryResponse> page = postService.getList(PostSearch.builder().page(1).size(5).build());
+        Long id = page.get(0).getId();
+
+        // when
+        postService.edit(id, PostEdit.builder().title("고친 글").build());
+
+        // then
+        assertInstanceOf(ShardedPostRepository.class, postRepository);
+        assertEquals(20, postRepository.count());
+        assertEquals(List.of("샤드 글 20", "샤드 글 19", "샤드 글 18", "샤드 글 17", "샤드 글 16"),
+                page.stream().map(PostSummaryResponse::getTitle).collect(Collectors.toList()));
+        assertEquals("고친 글", postService.get(id).getTitle());
+
+        postService.delete(id);
+        assertThrows(PostNotFound.class, () -> postService.get(id));
+    }
+}
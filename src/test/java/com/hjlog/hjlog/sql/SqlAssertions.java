@@ -0,0 +1,29 @@
+package com.hjlog.hjlog.sql;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 테스트에서 한 번의 호출이 실행하는 SQL 문 수를 제한한다.
+ * */
+public final class SqlAssertions {
+
+    private SqlAssertions() {
+    }
+
+    public static <T> T assertStatementsAtMost(int max, Supplier<T> call) {
+        try (SqlStats stats = SqlStats.begin()) {
+            T result = call.get();
+            assertTrue(stats.getCount() <= max, "SQL " + stats.getCount() + "개 실행, 최대 " + max + "개");
+            return result;
+        }
+    }
+
+    public static void assertStatementsAtMost(int max, Runnable call) {
+        assertStatementsAtMost(max, () -> {
+            call.run();
+            return null;
+        });
+    }
+}